@@ -0,0 +1,177 @@
+package com.example.api.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.api.ApiService;
+import com.example.metrics.InMemoryMetricsRegistry;
+
+/**
+ * Embedded HTTP/1.1 front end for an {@link ApiService}.
+ *
+ * <p>Routes:
+ * <ul>
+ *   <li>{@code POST /process} - the request body, decoded as UTF-8, is passed to
+ *       {@link ApiService#processData(String, java.nio.ByteBuffer)} and the processed record is returned</li>
+ *   <li>{@code GET /info} - returns {@link ApiService#getServiceInfoBytes()}</li>
+ * </ul>
+ *
+ * <p>An acceptor thread hands new connections round-robin to a fixed set of {@link EventLoop}s,
+ * each running a selector over its own connections. Connections are kept alive and may pipeline
+ * requests. Responses are generated by Jackson directly into pooled direct buffers, with the
+ * headers written in front of the body afterwards, so a response is never copied between
+ * {@code String}, {@code byte[]} and the socket. Request bodies must have a {@code Content-Length};
+ * chunked requests are answered with {@code 501}.
+ *
+ * <p>The server does not own the service: {@link #close()} stops serving but leaves the service open.
+ */
+public class ApiHttpServer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ApiHttpServer.class);
+    
+    /** Port used by {@link #main(String[])} when none is given. */
+    public static final int DEFAULT_PORT = 8080;
+    
+    private final ApiService apiService;
+    private final InetSocketAddress address;
+    private final EventLoop[] loops;
+    private ServerSocketChannel serverChannel;
+    private Thread acceptor;
+    
+    /**
+     * Create a server with one event loop per available processor.
+     * @param apiService Service to expose
+     * @param address Address to listen on; port 0 picks a free port
+     */
+    public ApiHttpServer(ApiService apiService, InetSocketAddress address) {
+        this(apiService, address, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a server.
+     * @param apiService Service to expose
+     * @param address Address to listen on; port 0 picks a free port
+     * @param eventLoops Number of event loop threads
+     */
+    public ApiHttpServer(ApiService apiService, InetSocketAddress address, int eventLoops) {
+        if (eventLoops < 1) {
+            throw new IllegalArgumentException("eventLoops must be positive: " + eventLoops);
+        }
+        this.apiService = apiService;
+        this.address = address;
+        this.loops = new EventLoop[eventLoops];
+    }
+    
+    /**
+     * Bind the listening socket and start the acceptor and event loop threads.
+     * @return This server
+     * @throws IOException If the socket cannot be bound
+     */
+    public synchronized ApiHttpServer start() throws IOException {
+        if (serverChannel != null) {
+            throw new IllegalStateException("Server already started");
+        }
+        ServerSocketChannel channel = ServerSocketChannel.open();
+        try {
+            channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            channel.bind(address, 1024);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        serverChannel = channel;
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new EventLoop("api-http-loop-" + (i + 1), apiService);
+            loops[i].start();
+        }
+        acceptor = new Thread(this::acceptLoop, "api-http-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        logger.info("Listening on {}", serverChannel.getLocalAddress());
+        return this;
+    }
+    
+    /**
+     * Get the port the server listens on, which is useful after binding to port 0.
+     * @return The local port
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            throw new IllegalStateException("Server is not listening", e);
+        }
+    }
+    
+    private void acceptLoop() {
+        int next = 0;
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                logger.warn("Failed to accept connection", e);
+                continue;
+            }
+            try {
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                logger.debug("Failed to disable Nagle's algorithm", e);
+            }
+            loops[next].register(channel);
+            next = (next + 1) % loops.length;
+        }
+    }
+    
+    /**
+     * Stop accepting connections and close the open ones. Responses not yet written are discarded.
+     */
+    @Override
+    public synchronized void close() {
+        if (serverChannel == null) {
+            return;
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing server socket", e);
+        }
+        for (EventLoop loop : loops) {
+            loop.shutdown();
+        }
+        try {
+            acceptor.join();
+            for (EventLoop loop : loops) {
+                loop.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Serve an {@link ApiService} until the process is stopped. The service records metrics,
+     * which keeps its per-call logging at DEBUG.
+     * @param args Optional port, defaulting to {@link #DEFAULT_PORT}
+     * @throws Exception If the socket cannot be bound
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ApiService apiService = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, new InMemoryMetricsRegistry());
+        ApiHttpServer server = new ApiHttpServer(apiService, new InetSocketAddress(port)).start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            apiService.close();
+        }, "api-http-shutdown"));
+        // Server threads are daemons, so keep the JVM alive until it is stopped
+        Thread.currentThread().join();
+    }
+}
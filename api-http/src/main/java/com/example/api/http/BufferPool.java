@@ -0,0 +1,44 @@
+package com.example.api.http;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of direct buffers of one size, owned by a single event loop thread.
+ * Direct buffers let the socket write skip the copy into a temporary native buffer,
+ * but are expensive to allocate, so they are kept and reused.
+ */
+final class BufferPool {
+    
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+    
+    BufferPool(int bufferSize, int maxPooled) {
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+    
+    int bufferSize() {
+        return bufferSize;
+    }
+    
+    /**
+     * Returns a cleared buffer from the pool, allocating one if the pool is empty.
+     */
+    ByteBuffer acquire() {
+        ByteBuffer buffer = free.pollFirst();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+    }
+    
+    /**
+     * Returns a buffer to the pool. Buffers of another size, such as ones allocated for
+     * oversized messages, are left to the garbage collector.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect() && buffer.capacity() == bufferSize && free.size() < maxPooled) {
+            buffer.clear();
+            free.offerFirst(buffer);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.api.http;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.api.ApiService;
+
+/**
+ * Thread that owns a selector and serves every connection registered with it.
+ *
+ * <p>Requests are processed on the loop thread itself: {@link ApiService#processData(String, java.nio.ByteBuffer)}
+ * is short and CPU-bound, so handing it to another thread would cost more than it saves.
+ * Buffers and scratch arrays belong to the loop, so none of them need synchronization.
+ */
+final class EventLoop extends Thread {
+    private static final Logger logger = LoggerFactory.getLogger(EventLoop.class);
+    
+    /** Size of pooled buffers; holds the largest request head plus a typical body. */
+    static final int BUFFER_SIZE = 16 * 1024;
+    
+    /** Free buffers kept per loop; more are allocated under load and dropped afterwards. */
+    private static final int MAX_POOLED_BUFFERS = 256;
+    
+    private final ApiService apiService;
+    private final Selector selector;
+    private final BufferPool pool = new BufferPool(BUFFER_SIZE, MAX_POOLED_BUFFERS);
+    private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+    private final byte[] headScratch = new byte[HttpConnection.HEADER_RESERVE];
+    private byte[] bodyScratch = new byte[BUFFER_SIZE];
+    private volatile boolean running = true;
+    
+    EventLoop(String name, ApiService apiService) throws IOException {
+        super(name);
+        this.apiService = apiService;
+        this.selector = Selector.open();
+        setDaemon(true);
+    }
+    
+    /**
+     * Hands an accepted connection to this loop. Called from the acceptor thread.
+     */
+    void register(SocketChannel channel) {
+        accepted.add(channel);
+        selector.wakeup();
+    }
+    
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+    
+    ApiService apiService() {
+        return apiService;
+    }
+    
+    BufferPool pool() {
+        return pool;
+    }
+    
+    byte[] headScratch() {
+        return headScratch;
+    }
+    
+    byte[] bodyScratch(int length) {
+        if (bodyScratch.length < length) {
+            bodyScratch = new byte[Math.max(length, bodyScratch.length * 2)];
+        }
+        return bodyScratch;
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(this::handle);
+                registerAccepted();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            logger.error("Event loop {} failed", getName(), e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((HttpConnection) key.attachment()).close();
+            }
+            SocketChannel channel;
+            while ((channel = accepted.poll()) != null) {
+                closeQuietly(channel);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                logger.debug("Error closing selector", e);
+            }
+        }
+    }
+    
+    private void registerAccepted() {
+        SocketChannel channel;
+        while ((channel = accepted.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                HttpConnection connection = new HttpConnection(this, channel);
+                connection.attach(channel.register(selector, SelectionKey.OP_READ, connection));
+            } catch (IOException e) {
+                logger.debug("Failed to register connection", e);
+                closeQuietly(channel);
+            }
+        }
+    }
+    
+    private void handle(SelectionKey key) {
+        HttpConnection connection = (HttpConnection) key.attachment();
+        try {
+            if (key.isReadable()) {
+                connection.onReadable();
+            } else if (key.isWritable()) {
+                connection.onWritable();
+            }
+        } catch (IOException e) {
+            logger.debug("Connection failed", e);
+            connection.close();
+        } catch (RuntimeException e) {
+            logger.error("Unexpected error serving connection", e);
+            connection.close();
+        }
+    }
+    
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing connection", e);
+        }
+    }
+}
@@ -0,0 +1,588 @@
+package com.example.api.http;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.api.ApiService;
+
+/**
+ * One HTTP/1.1 connection, driven by the {@link EventLoop} that owns it.
+ *
+ * <p>Requests are parsed in place in the read buffer, without building strings for the request
+ * line or headers; only the request body is decoded, because {@link ApiService} takes a
+ * {@code String}. Every complete request in the buffer is answered before the connection reads
+ * again, so pipelined requests are served in order. Responses are queued as buffers and written
+ * with one gathering write. While responses are still waiting to be written the connection stops
+ * reading, which pushes back on clients that pipeline faster than they read.
+ */
+final class HttpConnection {
+    private static final Logger logger = LoggerFactory.getLogger(HttpConnection.class);
+    
+    /** Largest request line plus headers accepted. */
+    static final int MAX_HEADER_BYTES = 8 * 1024;
+    
+    /** Largest request body accepted. */
+    static final int MAX_BODY_BYTES = 1024 * 1024;
+    
+    /** Responses queued per connection before it stops parsing requests. */
+    static final int MAX_QUEUED_RESPONSES = 64;
+    
+    /** Space left in front of a response body for its status line and headers. */
+    static final int HEADER_RESERVE = 256;
+    
+    /** Worst-case growth of a string serialized to JSON: a control character becomes a six-character escape. */
+    private static final int MAX_ESCAPE_EXPANSION = 6;
+    
+    /** Room for the record around the escaped input: field names, timestamp and punctuation. */
+    private static final int RECORD_OVERHEAD_BYTES = 128;
+    
+    private static final byte[] CONTENT_TYPE_JSON = ascii("Content-Type: application/json\r\n");
+    private static final byte[] CONTENT_LENGTH = ascii("Content-Length: ");
+    private static final byte[] CONNECTION_CLOSE = ascii("Connection: close\r\n");
+    private static final byte[] CONNECTION_KEEP_ALIVE = ascii("Connection: keep-alive\r\n");
+    private static final byte[] ALLOW = ascii("Allow: ");
+    private static final byte[] CRLF = ascii("\r\n");
+    /** The interim response to {@code Expect: 100-continue}, which has no headers or body. */
+    private static final byte[] CONTINUE = ascii("HTTP/1.1 100 Continue\r\n\r\n");
+    
+    private static final byte[] GET = ascii("GET");
+    private static final byte[] POST = ascii("POST");
+    private static final byte[] PATH_PROCESS = ascii("/process");
+    private static final byte[] PATH_INFO = ascii("/info");
+    private static final byte[] HTTP_1_0 = ascii("HTTP/1.0");
+    private static final byte[] HTTP_1_1 = ascii("HTTP/1.1");
+    private static final byte[] HEADER_CONTENT_LENGTH = ascii("content-length");
+    private static final byte[] HEADER_CONNECTION = ascii("connection");
+    private static final byte[] HEADER_EXPECT = ascii("expect");
+    private static final byte[] HEADER_TRANSFER_ENCODING = ascii("transfer-encoding");
+    private static final byte[] TOKEN_CLOSE = ascii("close");
+    private static final byte[] TOKEN_KEEP_ALIVE = ascii("keep-alive");
+    private static final byte[] TOKEN_100_CONTINUE = ascii("100-continue");
+    
+    private final EventLoop loop;
+    private final SocketChannel channel;
+    private SelectionKey key;
+    
+    /** Received bytes not yet consumed, in write mode; null while none are buffered. */
+    private ByteBuffer in;
+    
+    /** Bytes the buffered request needs in total, when it does not fit the current buffer. */
+    private int required;
+    
+    /** Responses in the order they are to be written, in read mode. */
+    private final ByteBuffer[] out = new ByteBuffer[MAX_QUEUED_RESPONSES];
+    private int outCount;
+    
+    /** Set once the peer has shut down its output. */
+    private boolean inputClosed;
+    
+    /** Set once a response ends the connection; requests after it are ignored. */
+    private boolean closeAfterWrite;
+    
+    /** Whether {@code 100 Continue} has been sent for the buffered request. */
+    private boolean continueSent;
+    
+    // Head of the request being parsed
+    private boolean http10;
+    private boolean keepAlive;
+    private long contentLength;
+    private boolean expectContinue;
+    private boolean chunked;
+    
+    HttpConnection(EventLoop loop, SocketChannel channel) {
+        this.loop = loop;
+        this.channel = channel;
+    }
+    
+    void attach(SelectionKey key) {
+        this.key = key;
+    }
+    
+    void onReadable() throws IOException {
+        if (in == null) {
+            in = loop.pool().acquire();
+        }
+        if (channel.read(in) < 0) {
+            inputClosed = true;
+        }
+        service();
+    }
+    
+    void onWritable() throws IOException {
+        service();
+    }
+    
+    /**
+     * Answers buffered requests and writes queued responses until either the socket is full,
+     * more input is needed, or the connection is done.
+     */
+    private void service() throws IOException {
+        boolean more;
+        do {
+            more = processBuffered();
+            if (!flush()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+        } while (more);
+        if (closeAfterWrite || inputClosed) {
+            close();
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+    
+    /**
+     * Answers the complete requests in the read buffer.
+     *
+     * @return true if parsing stopped because the response queue is full
+     */
+    private boolean processBuffered() {
+        if (in == null) {
+            return false;
+        }
+        in.flip();
+        required = 0;
+        try {
+            while (!closeAfterWrite && in.hasRemaining()) {
+                if (outCount >= MAX_QUEUED_RESPONSES - 1) {
+                    return true;
+                }
+                if (!processOne()) {
+                    break;
+                }
+            }
+            return false;
+        } finally {
+            compactInput();
+        }
+    }
+    
+    /**
+     * Parses and answers the request at the buffer's position.
+     *
+     * @return false if the request is incomplete
+     */
+    private boolean processOne() {
+        int start = in.position();
+        int limit = in.limit();
+        int headerEnd = indexOfHeaderEnd(start, Math.min(limit, start + MAX_HEADER_BYTES));
+        if (headerEnd < 0) {
+            if (limit - start >= MAX_HEADER_BYTES) {
+                respondError(HttpStatus.HEADERS_TOO_LARGE, false);
+            }
+            return false;
+        }
+        Route route = parseHead(start, headerEnd);
+        if (route == null) {
+            respondError(HttpStatus.BAD_REQUEST, false);
+            return false;
+        }
+        if (chunked) {
+            respondError(HttpStatus.NOT_IMPLEMENTED, false);
+            return false;
+        }
+        if (contentLength > MAX_BODY_BYTES) {
+            respondError(HttpStatus.PAYLOAD_TOO_LARGE, false);
+            return false;
+        }
+        int total = headerEnd - start + (int) contentLength;
+        if (limit - start < total) {
+            required = total;
+            if (expectContinue && !continueSent) {
+                queue(ByteBuffer.wrap(CONTINUE));
+                continueSent = true;
+            }
+            return false;
+        }
+        in.position(start + total);
+        continueSent = false;
+        dispatch(route, headerEnd, (int) contentLength);
+        return true;
+    }
+    
+    private void dispatch(Route route, int bodyStart, int bodyLength) {
+        switch (route) {
+            case PROCESS_POST:
+                respondProcess(bodyStart, bodyLength);
+                break;
+            case INFO_GET:
+                respond(HttpStatus.OK, loop.apiService().getServiceInfoBytes(), keepAlive, null);
+                break;
+            case PROCESS_OTHER:
+                respond(HttpStatus.METHOD_NOT_ALLOWED, HttpStatus.METHOD_NOT_ALLOWED.errorBody, keepAlive, POST);
+                break;
+            case INFO_OTHER:
+                respond(HttpStatus.METHOD_NOT_ALLOWED, HttpStatus.METHOD_NOT_ALLOWED.errorBody, keepAlive, GET);
+                break;
+            default:
+                respond(HttpStatus.NOT_FOUND, HttpStatus.NOT_FOUND.errorBody, keepAlive, null);
+                break;
+        }
+        if (!keepAlive) {
+            closeAfterWrite = true;
+        }
+    }
+    
+    /**
+     * Generates the processed record straight into the response buffer, behind the space
+     * reserved for the headers. The buffer is sized for the worst case up front, so the
+     * request is never processed twice.
+     */
+    private void respondProcess(int bodyStart, int bodyLength) {
+        String input = decodeBody(bodyStart, bodyLength);
+        long bound = HEADER_RESERVE + RECORD_OVERHEAD_BYTES + (long) MAX_ESCAPE_EXPANSION * bodyLength;
+        BufferPool pool = loop.pool();
+        ByteBuffer response = bound <= pool.bufferSize() ? pool.acquire() : ByteBuffer.allocate((int) bound);
+        response.position(HEADER_RESERVE);
+        try {
+            loop.apiService().processData(input, response);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to process request", e);
+            pool.release(response);
+            respond(HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.INTERNAL_SERVER_ERROR.errorBody, keepAlive, null);
+            return;
+        }
+        finish(response, HttpStatus.OK, keepAlive, null);
+    }
+    
+    private void respondError(HttpStatus status, boolean keepOpen) {
+        respond(status, status.errorBody, keepOpen, null);
+        if (!keepOpen) {
+            closeAfterWrite = true;
+        }
+    }
+    
+    private void respond(HttpStatus status, byte[] body, boolean keepOpen, byte[] allow) {
+        BufferPool pool = loop.pool();
+        ByteBuffer response = HEADER_RESERVE + body.length <= pool.bufferSize()
+                ? pool.acquire()
+                : ByteBuffer.allocate(HEADER_RESERVE + body.length);
+        response.position(HEADER_RESERVE);
+        response.put(body);
+        finish(response, status, keepOpen, allow);
+    }
+    
+    /**
+     * Writes the status line and headers into the reserved space just in front of the body,
+     * which starts at {@link #HEADER_RESERVE} and ends at the buffer's position, and queues the response.
+     */
+    private void finish(ByteBuffer response, HttpStatus status, boolean keepOpen, byte[] allow) {
+        int bodyEnd = response.position();
+        byte[] head = loop.headScratch();
+        int n = append(head, 0, status.statusLine);
+        n = append(head, n, CONTENT_TYPE_JSON);
+        n = append(head, n, CONTENT_LENGTH);
+        n = appendInt(head, n, bodyEnd - HEADER_RESERVE);
+        n = append(head, n, CRLF);
+        if (!keepOpen) {
+            n = append(head, n, CONNECTION_CLOSE);
+        } else if (http10) {
+            n = append(head, n, CONNECTION_KEEP_ALIVE);
+        }
+        if (allow != null) {
+            n = append(head, n, ALLOW);
+            n = append(head, n, allow);
+            n = append(head, n, CRLF);
+        }
+        n = append(head, n, CRLF);
+        int headStart = HEADER_RESERVE - n;
+        response.put(headStart, head, 0, n);
+        response.limit(bodyEnd).position(headStart);
+        queue(response);
+    }
+    
+    private void queue(ByteBuffer response) {
+        out[outCount++] = response;
+    }
+    
+    /**
+     * Writes as much of the queued responses as the socket accepts.
+     *
+     * @return true if every queued response has been written
+     */
+    private boolean flush() throws IOException {
+        if (outCount == 0) {
+            return true;
+        }
+        channel.write(out, 0, outCount);
+        int done = 0;
+        while (done < outCount && !out[done].hasRemaining()) {
+            loop.pool().release(out[done]);
+            done++;
+        }
+        if (done > 0) {
+            System.arraycopy(out, done, out, 0, outCount - done);
+            Arrays.fill(out, outCount - done, outCount, null);
+            outCount -= done;
+        }
+        return outCount == 0;
+    }
+    
+    /**
+     * Moves unconsumed bytes to the front of the read buffer. The buffer goes back to the pool
+     * when it is empty, so idle connections hold no buffer, and an oversized request gets a
+     * heap buffer of its own until it has been consumed.
+     */
+    private void compactInput() {
+        BufferPool pool = loop.pool();
+        if (!in.hasRemaining()) {
+            pool.release(in);
+            in = null;
+            required = 0;
+            return;
+        }
+        if (required > in.capacity()) {
+            ByteBuffer larger = ByteBuffer.allocate(required);
+            larger.put(in);
+            pool.release(in);
+            in = larger;
+        } else if (in.capacity() > pool.bufferSize() && in.remaining() <= pool.bufferSize() && required <= pool.bufferSize()) {
+            ByteBuffer pooled = pool.acquire();
+            pooled.put(in);
+            in = pooled;
+        } else {
+            in.compact();
+        }
+    }
+    
+    /**
+     * Parses the request line and the headers this server acts on.
+     *
+     * @return the route, or null if the request is malformed
+     */
+    private Route parseHead(int start, int headerEnd) {
+        http10 = false;
+        keepAlive = true;
+        contentLength = 0;
+        expectContinue = false;
+        chunked = false;
+        
+        int lineEnd = indexOfCrlf(start, headerEnd);
+        int methodEnd = indexOf((byte) ' ', start, lineEnd);
+        int targetEnd = methodEnd < 0 ? -1 : indexOf((byte) ' ', methodEnd + 1, lineEnd);
+        if (targetEnd < 0 || methodEnd == start || targetEnd == methodEnd + 1) {
+            return null;
+        }
+        if (!isVersion(targetEnd + 1, lineEnd)) {
+            return null;
+        }
+        http10 = equalsAt(targetEnd + 1, lineEnd, HTTP_1_0);
+        keepAlive = !http10;
+        
+        int lineStart = lineEnd + 2;
+        while (lineStart < headerEnd - 2) {
+            lineEnd = indexOfCrlf(lineStart, headerEnd);
+            int colon = indexOf((byte) ':', lineStart, lineEnd);
+            if (colon <= lineStart) {
+                return null;
+            }
+            int valueStart = skipSpaces(colon + 1, lineEnd);
+            int valueEnd = trimSpaces(valueStart, lineEnd);
+            if (equalsIgnoreCaseAt(lineStart, colon, HEADER_CONTENT_LENGTH)) {
+                contentLength = parseLength(valueStart, valueEnd);
+                if (contentLength < 0) {
+                    return null;
+                }
+            } else if (equalsIgnoreCaseAt(lineStart, colon, HEADER_CONNECTION)) {
+                if (containsToken(valueStart, valueEnd, TOKEN_CLOSE)) {
+                    keepAlive = false;
+                } else if (containsToken(valueStart, valueEnd, TOKEN_KEEP_ALIVE)) {
+                    keepAlive = true;
+                }
+            } else if (equalsIgnoreCaseAt(lineStart, colon, HEADER_EXPECT)) {
+                expectContinue = equalsIgnoreCaseAt(valueStart, valueEnd, TOKEN_100_CONTINUE);
+            } else if (equalsIgnoreCaseAt(lineStart, colon, HEADER_TRANSFER_ENCODING)) {
+                chunked = true;
+            }
+            lineStart = lineEnd + 2;
+        }
+        
+        int pathEnd = indexOf((byte) '?', methodEnd + 1, targetEnd);
+        if (pathEnd < 0) {
+            pathEnd = targetEnd;
+        }
+        boolean get = equalsAt(start, methodEnd, GET);
+        boolean post = equalsAt(start, methodEnd, POST);
+        if (equalsAt(methodEnd + 1, pathEnd, PATH_PROCESS)) {
+            return post ? Route.PROCESS_POST : Route.PROCESS_OTHER;
+        }
+        if (equalsAt(methodEnd + 1, pathEnd, PATH_INFO)) {
+            return get ? Route.INFO_GET : Route.INFO_OTHER;
+        }
+        return Route.NOT_FOUND;
+    }
+    
+    private String decodeBody(int start, int length) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = loop.bodyScratch(length);
+        in.get(start, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Returns the index just past the blank line ending the headers, or -1 if it is not buffered yet.
+     */
+    private int indexOfHeaderEnd(int from, int to) {
+        for (int i = from; i + 3 < to; i++) {
+            if (in.get(i + 3) == '\n' && in.get(i + 2) == '\r' && in.get(i + 1) == '\n' && in.get(i) == '\r') {
+                return i + 4;
+            }
+        }
+        return -1;
+    }
+    
+    private int indexOfCrlf(int from, int to) {
+        for (int i = from; i + 1 < to; i++) {
+            if (in.get(i) == '\r' && in.get(i + 1) == '\n') {
+                return i;
+            }
+        }
+        return to;
+    }
+    
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (in.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private boolean isVersion(int from, int to) {
+        return equalsAt(from, to, HTTP_1_1) || equalsAt(from, to, HTTP_1_0);
+    }
+    
+    private boolean equalsAt(int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (in.get(from + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Compares against a lower-case ASCII constant, ignoring the case of the buffered bytes.
+     */
+    private boolean equalsIgnoreCaseAt(int from, int to, byte[] lowerCase) {
+        if (to - from != lowerCase.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCase.length; i++) {
+            int b = in.get(from + i);
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != lowerCase[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Checks a comma-separated header value, such as {@code Connection: Upgrade, close}, for a token.
+     */
+    private boolean containsToken(int from, int to, byte[] lowerCase) {
+        int tokenStart = from;
+        while (tokenStart < to) {
+            int comma = indexOf((byte) ',', tokenStart, to);
+            int tokenEnd = comma < 0 ? to : comma;
+            if (equalsIgnoreCaseAt(skipSpaces(tokenStart, tokenEnd), trimSpaces(tokenStart, tokenEnd), lowerCase)) {
+                return true;
+            }
+            tokenStart = tokenEnd + 1;
+        }
+        return false;
+    }
+    
+    private int skipSpaces(int from, int to) {
+        while (from < to && (in.get(from) == ' ' || in.get(from) == '\t')) {
+            from++;
+        }
+        return from;
+    }
+    
+    private int trimSpaces(int from, int to) {
+        while (to > from && (in.get(to - 1) == ' ' || in.get(to - 1) == '\t')) {
+            to--;
+        }
+        return to;
+    }
+    
+    /**
+     * Parses a decimal length, returning -1 if it is empty, not a number, or implausibly long.
+     */
+    private long parseLength(int from, int to) {
+        if (from == to || to - from > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int b = in.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+    
+    void close() {
+        if (key != null) {
+            key.cancel();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing connection", e);
+        }
+        BufferPool pool = loop.pool();
+        if (in != null) {
+            pool.release(in);
+            in = null;
+        }
+        for (int i = 0; i < outCount; i++) {
+            pool.release(out[i]);
+            out[i] = null;
+        }
+        outCount = 0;
+    }
+    
+    private static int append(byte[] dst, int offset, byte[] src) {
+        System.arraycopy(src, 0, dst, offset, src.length);
+        return offset + src.length;
+    }
+    
+    private static int appendInt(byte[] dst, int offset, int value) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            dst[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return offset + digits;
+    }
+    
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    private enum Route { PROCESS_POST, PROCESS_OTHER, INFO_GET, INFO_OTHER, NOT_FOUND }
+}
@@ -0,0 +1,26 @@
+package com.example.api.http;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Final response statuses used by {@link ApiHttpServer}, with their status lines and error bodies pre-encoded.
+ */
+enum HttpStatus {
+    
+    OK(200, "OK"),
+    BAD_REQUEST(400, "Bad Request"),
+    NOT_FOUND(404, "Not Found"),
+    METHOD_NOT_ALLOWED(405, "Method Not Allowed"),
+    PAYLOAD_TOO_LARGE(413, "Payload Too Large"),
+    HEADERS_TOO_LARGE(431, "Request Header Fields Too Large"),
+    INTERNAL_SERVER_ERROR(500, "Internal Server Error"),
+    NOT_IMPLEMENTED(501, "Not Implemented");
+    
+    final byte[] statusLine;
+    final byte[] errorBody;
+    
+    HttpStatus(int code, String reason) {
+        this.statusLine = ("HTTP/1.1 " + code + " " + reason + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        this.errorBody = ("{\"error\":\"" + reason + "\"}").getBytes(StandardCharsets.US_ASCII);
+    }
+}
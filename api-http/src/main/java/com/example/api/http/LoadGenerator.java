@@ -0,0 +1,219 @@
+package com.example.api.http;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.RandomStrings;
+import com.example.api.ApiService;
+import com.example.metrics.InMemoryMetricsRegistry;
+import com.example.metrics.LatencyHistogram;
+
+/**
+ * Closed-loop load generator for {@code POST /process}.
+ *
+ * <p>Each connection runs on its own thread and repeatedly sends a batch of {@code depth}
+ * pipelined requests, then reads their responses. The latency of a request is measured from the
+ * moment its batch was written to the moment its response was fully read, so it includes time
+ * spent queued behind the other requests of the batch. Being closed-loop, the generator slows
+ * down with the server, which understates tail latency under overload.
+ *
+ * <p>Usage: {@code LoadGenerator [host] [port] [connections] [depth] [seconds] [payloadBytes]}.
+ * With port 0 an embedded server is started on a free port, with a metered {@link ApiService}
+ * so that per-call logging stays at DEBUG.
+ */
+public final class LoadGenerator {
+    
+    private static final long WARMUP_NANOS = TimeUnit.SECONDS.toNanos(2);
+    
+    /**
+     * Upper bound on the bytes of one pipelined batch, and the send buffer size requested for each
+     * connection. A batch is written before any response is read, so it must fit in the send
+     * buffer; otherwise the write blocks while the server, whose responses are not being read,
+     * stops reading too.
+     */
+    private static final int MAX_BATCH_BYTES = 64 * 1024;
+    
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int depth;
+    private final byte[] batch;
+    
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    
+    private LoadGenerator(InetSocketAddress address, int connections, int depth, int payloadBytes) {
+        this.address = address;
+        this.connections = connections;
+        byte[] request = request(address, RandomStrings.alphanumeric().next(payloadBytes));
+        if ((long) request.length * depth > MAX_BATCH_BYTES) {
+            int capped = Math.max(1, MAX_BATCH_BYTES / request.length);
+            System.err.printf("depth %d x %d-byte requests exceeds %d bytes, using depth %d%n",
+                    depth, request.length, MAX_BATCH_BYTES, capped);
+            depth = capped;
+        }
+        this.depth = depth;
+        this.batch = new byte[request.length * depth];
+        for (int i = 0; i < depth; i++) {
+            System.arraycopy(request, 0, batch, i * request.length, request.length);
+        }
+    }
+    
+    private static byte[] request(InetSocketAddress address, String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /process HTTP/1.1\r\n"
+                + "Host: " + address.getHostString() + ":" + address.getPort() + "\r\n"
+                + "Content-Type: text/plain; charset=utf-8\r\n"
+                + "Content-Length: " + content.length + "\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] request = new byte[headBytes.length + content.length];
+        System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+        System.arraycopy(content, 0, request, headBytes.length, content.length);
+        return request;
+    }
+    
+    /**
+     * Runs the load, discarding the first two seconds as warm-up.
+     */
+    private void run(long durationNanos) throws InterruptedException {
+        long measureFrom = System.nanoTime() + WARMUP_NANOS;
+        long deadline = measureFrom + durationNanos;
+        List<Thread> threads = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            String name = "load-" + (i + 1);
+            Thread thread = new Thread(() -> drive(measureFrom, deadline), name);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+    
+    private void drive(long measureFrom, long deadline) {
+        try (Socket socket = new Socket()) {
+            socket.setTcpNoDelay(true);
+            socket.setSendBufferSize(Math.max(MAX_BATCH_BYTES, batch.length));
+            socket.connect(address);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            byte[] scratch = new byte[8192];
+            long now = System.nanoTime();
+            while (now < deadline) {
+                long sent = now;
+                out.write(batch);
+                out.flush();
+                boolean measured = sent >= measureFrom;
+                for (int i = 0; i < depth; i++) {
+                    int status = readResponse(in, scratch, measured);
+                    now = System.nanoTime();
+                    if (measured) {
+                        if (status == 200) {
+                            latencies.record(now - sent);
+                        } else {
+                            errors.increment();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            errors.increment();
+            System.err.println(Thread.currentThread().getName() + ": " + e);
+        }
+    }
+    
+    /**
+     * Reads one response, returning its status code.
+     */
+    private int readResponse(InputStream in, byte[] scratch, boolean measured) throws IOException {
+        int headLength = readHead(in, scratch);
+        String head = new String(scratch, 0, headLength, StandardCharsets.US_ASCII);
+        int status = Integer.parseInt(head.substring(9, 12));
+        int contentLength = 0;
+        for (String line : head.split("\r\n")) {
+            if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                contentLength = Integer.parseInt(line.substring(15).trim());
+            }
+        }
+        for (int remaining = contentLength; remaining > 0; ) {
+            int n = in.read(scratch, 0, Math.min(remaining, scratch.length));
+            if (n < 0) {
+                throw new EOFException("Connection closed mid-response");
+            }
+            remaining -= n;
+        }
+        if (measured) {
+            bytesReceived.add(headLength + contentLength);
+        }
+        return status;
+    }
+    
+    private static int readHead(InputStream in, byte[] scratch) throws IOException {
+        int n = 0;
+        while (n < 4 || scratch[n - 4] != '\r' || scratch[n - 3] != '\n' || scratch[n - 2] != '\r' || scratch[n - 1] != '\n') {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Connection closed mid-response");
+            }
+            if (n == scratch.length) {
+                throw new IOException("Response head too large");
+            }
+            scratch[n++] = (byte) b;
+        }
+        return n;
+    }
+    
+    private void report(long durationNanos) {
+        double seconds = durationNanos / 1e9;
+        long requests = latencies.getCount();
+        System.out.printf("connections=%d depth=%d duration=%.0fs%n", connections, depth, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.0f req/s (%.1f MB/s received)%n",
+                requests, errors.sum(), requests / seconds, bytesReceived.sum() / seconds / (1024 * 1024));
+        System.out.printf("latency us: p50=%.1f p90=%.1f p99=%.1f p999=%.1f max=%.1f%n",
+                micros(latencies.getValueAtPercentile(50)), micros(latencies.getValueAtPercentile(90)),
+                micros(latencies.getValueAtPercentile(99)), micros(latencies.getValueAtPercentile(99.9)),
+                micros(latencies.getMax()));
+    }
+    
+    private static double micros(long nanos) {
+        return nanos / 1e3;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : ApiHttpServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+        int payloadBytes = args.length > 5 ? Integer.parseInt(args[5]) : 64;
+        
+        ApiService apiService = null;
+        ApiHttpServer server = null;
+        if (port == 0) {
+            apiService = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, new InMemoryMetricsRegistry());
+            server = new ApiHttpServer(apiService, new InetSocketAddress(host, 0)).start();
+            port = server.getPort();
+        }
+        try {
+            long durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+            LoadGenerator generator = new LoadGenerator(new InetSocketAddress(host, port), connections, depth, payloadBytes);
+            generator.run(durationNanos);
+            generator.report(durationNanos);
+        } finally {
+            if (server != null) {
+                server.close();
+                apiService.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.api.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.RandomStrings;
+import com.example.api.ApiService;
+
+/**
+ * Test class for ApiHttpServer
+ */
+class ApiHttpServerTest {
+    
+    private ApiService apiService;
+    private ApiHttpServer server;
+    private Socket socket;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        apiService = new ApiService();
+        server = new ApiHttpServer(apiService, new InetSocketAddress("localhost", 0), 2).start();
+        socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5000);
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        socket.close();
+        server.close();
+        apiService.close();
+    }
+    
+    @Test
+    @DisplayName("Should serve service info")
+    void testGetInfo() throws IOException {
+        send("GET /info HTTP/1.1\r\nHost: localhost\r\n\r\n");
+        Response response = read();
+        
+        assertEquals(200, response.status);
+        assertEquals("application/json", response.headers.get("content-type"));
+        assertEquals(apiService.getServiceInfo(), response.body);
+    }
+    
+    @Test
+    @DisplayName("Should process the request body")
+    void testPostProcess() throws IOException {
+        send(post("hello world"));
+        Response response = read();
+        
+        assertEquals(200, response.status);
+        assertTrue(response.body.startsWith("{\"name\":\"input\",\"value\":\"hello world\""));
+        assertEquals(String.valueOf(response.body.getBytes(StandardCharsets.UTF_8).length),
+                response.headers.get("content-length"));
+    }
+    
+    @Test
+    @DisplayName("Should answer pipelined requests in order on one connection")
+    void testPipelinedRequests() throws IOException {
+        send(post("first") + "GET /info HTTP/1.1\r\n\r\n" + post("third"));
+        
+        assertTrue(read().body.contains("\"first\""));
+        assertEquals(apiService.getServiceInfo(), read().body);
+        assertTrue(read().body.contains("\"third\""));
+        
+        // The connection stays open for further requests
+        send(post("fourth"));
+        assertTrue(read().body.contains("\"fourth\""));
+    }
+    
+    @Test
+    @DisplayName("Should handle bodies larger than the pooled buffers")
+    void testLargeBody() throws IOException {
+        String payload = RandomStrings.alphanumeric().next(3 * EventLoop.BUFFER_SIZE);
+        send(post(payload) + post("small"));
+        
+        assertTrue(read().body.contains(payload));
+        assertTrue(read().body.contains("\"small\""));
+    }
+    
+    @Test
+    @DisplayName("Should decode UTF-8 bodies")
+    void testUtf8Body() throws IOException {
+        send(post("café ☃"));
+        
+        assertTrue(read().body.contains("café ☃"));
+    }
+    
+    @Test
+    @DisplayName("Should send 100 Continue before reading the body")
+    void testExpectContinue() throws IOException {
+        send("POST /process HTTP/1.1\r\nExpect: 100-continue\r\nContent-Length: 4\r\n\r\n");
+        assertEquals(100, read().status);
+        
+        send("body");
+        assertTrue(read().body.contains("\"body\""));
+    }
+    
+    @Test
+    @DisplayName("Should reject unknown paths and methods")
+    void testUnknownRoutes() throws IOException {
+        send("GET /missing HTTP/1.1\r\n\r\n" + "GET /process HTTP/1.1\r\n\r\n");
+        
+        assertEquals(404, read().status);
+        Response methodNotAllowed = read();
+        assertEquals(405, methodNotAllowed.status);
+        assertEquals("POST", methodNotAllowed.headers.get("allow"));
+    }
+    
+    @Test
+    @DisplayName("Should close the connection after a malformed request")
+    void testMalformedRequest() throws IOException {
+        send("NONSENSE\r\n\r\n");
+        Response response = read();
+        
+        assertEquals(400, response.status);
+        assertEquals("close", response.headers.get("connection"));
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    @Test
+    @DisplayName("Should close the connection when asked to")
+    void testConnectionClose() throws IOException {
+        send("GET /info HTTP/1.1\r\nConnection: close\r\n\r\n");
+        
+        assertEquals(200, read().status);
+        assertEquals(-1, socket.getInputStream().read());
+    }
+    
+    private static String post(String body) {
+        return "POST /process HTTP/1.1\r\nContent-Length: " + body.getBytes(StandardCharsets.UTF_8).length
+                + "\r\n\r\n" + body;
+    }
+    
+    private void send(String request) throws IOException {
+        socket.getOutputStream().write(request.getBytes(StandardCharsets.UTF_8));
+        socket.getOutputStream().flush();
+    }
+    
+    private Response read() throws IOException {
+        InputStream in = socket.getInputStream();
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        while (!head.toString(StandardCharsets.US_ASCII).endsWith("\r\n\r\n")) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            head.write(b);
+        }
+        String[] lines = head.toString(StandardCharsets.US_ASCII).split("\r\n");
+        Response response = new Response();
+        response.status = Integer.parseInt(lines[0].substring(9, 12));
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            response.headers.put(lines[i].substring(0, colon).toLowerCase(), lines[i].substring(colon + 1).trim());
+        }
+        int length = Integer.parseInt(response.headers.getOrDefault("content-length", "0"));
+        response.body = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        return response;
+    }
+    
+    private static final class Response {
+        int status;
+        final Map<String, String> headers = new TreeMap<>();
+        String body;
+    }
+}
@@ -1,26 +1,134 @@
 package com.example.api;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
 import com.example.DataProcessor;
+import com.example.JsonCodecs;
+import com.example.LogValues;
 import com.example.StringUtils;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.metrics.MethodMetrics;
+import com.example.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 /**
  * API Service that demonstrates the use of common module utilities
  */
-public class ApiService {
+public class ApiService implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(ApiService.class);
     
-    private final DataProcessor dataProcessor;
-    private final StringUtils stringUtils;
-    private final ObjectMapper objectMapper;
+    private static final String SERVICE_NAME = "API Service";
+    private static final String DEFAULT_VERSION = "1.0.0";
+    private static final String DEFAULT_STATUS = "Active";
+    private static final String SERVICE_INFO_ERROR = "{\"error\": \"Failed to get service info\"}";
+    
+    /** Default limit on asynchronous requests in flight at once. */
+    public static final int DEFAULT_MAX_CONCURRENCY = 1024;
+    
+    /** Created on the first call that processes data, so services that only report info never load it. */
+    private volatile DataProcessor dataProcessor;
+    private final MetricsRegistry metrics;
+    private final ObjectWriter serviceInfoWriter;
+    
+    /**
+     * Serialized service info, replaced as a whole whenever version or status change.
+     */
+    private final AtomicReference<ServiceInfoSnapshot> serviceInfo;
+    
+    /** Permits for asynchronous requests; callers block when none are left. */
+    private final Semaphore inFlight;
+    private final boolean ownsExecutor;
+    private volatile ExecutorService executor;
+    
+    /** Set by {@link #close()}; asynchronous requests submitted afterwards are rejected. */
+    private volatile boolean closed;
+    
+    /** Whether calls are timed; false for {@link MetricsRegistry#NOOP}. */
+    private final boolean timed;
+    private final MethodMetrics processMetrics;
+    
+    /** Per-call log statements go to INFO without metrics, and to DEBUG once metrics replace them. */
+    private final Level callLogLevel;
+    
+    /** Cache of processed results by trimmed input, or null. */
+    private final ResultCache resultCache;
     
     public ApiService() {
-        this.dataProcessor = new DataProcessor();
-        this.stringUtils = new StringUtils();
-        this.objectMapper = new ObjectMapper();
+        this(DEFAULT_MAX_CONCURRENCY);
+    }
+    
+    /**
+     * Create a service whose asynchronous requests run on its own executor:
+     * virtual threads when the runtime supports them, otherwise a pool with one thread per core.
+     * The executor is started on first asynchronous use and shut down by {@link #close()}.
+     * @param maxConcurrency Maximum number of asynchronous requests in flight at once
+     */
+    public ApiService(int maxConcurrency) {
+        this(maxConcurrency, null);
+    }
+    
+    /**
+     * Create a service whose asynchronous requests run on the given executor.
+     * The executor stays owned by the caller and is not shut down by {@link #close()}.
+     * @param maxConcurrency Maximum number of asynchronous requests in flight at once
+     * @param executor Executor to run asynchronous requests on
+     */
+    public ApiService(int maxConcurrency, ExecutorService executor) {
+        this(maxConcurrency, executor, MetricsRegistry.NOOP);
+    }
+    
+    /**
+     * Create a service that records its calls, and those of its {@link DataProcessor}, in the given registry.
+     * With a registry other than {@link MetricsRegistry#NOOP}, per-call log statements move from INFO to DEBUG.
+     * @param maxConcurrency Maximum number of asynchronous requests in flight at once
+     * @param executor Executor to run asynchronous requests on, owned by the caller,
+     *                 or null to create one on first use that {@link #close()} shuts down
+     * @param metrics Registry to record into
+     */
+    public ApiService(int maxConcurrency, ExecutorService executor, MetricsRegistry metrics) {
+        this(maxConcurrency, executor, metrics, null);
+    }
+    
+    /**
+     * Create a service that answers repeated inputs from a result cache.
+     * Inputs are normalized by trimming, so inputs that differ only in surrounding whitespace share an entry.
+     * @param maxConcurrency Maximum number of asynchronous requests in flight at once
+     * @param executor Executor to run asynchronous requests on, owned by the caller,
+     *                 or null to create one on first use that {@link #close()} shuts down
+     * @param metrics Registry to record into
+     * @param resultCache Cache of processed results, or null to process every call
+     */
+    public ApiService(int maxConcurrency, ExecutorService executor, MetricsRegistry metrics,
+                      ResultCache resultCache) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.metrics = metrics;
+        this.serviceInfoWriter = JsonCodecs.writer(ServiceInfo.class);
+        this.serviceInfo = new AtomicReference<>(snapshot(DEFAULT_VERSION, DEFAULT_STATUS));
+        this.inFlight = new Semaphore(maxConcurrency);
+        this.ownsExecutor = executor == null;
+        this.executor = executor;
+        this.timed = metrics != MetricsRegistry.NOOP;
+        this.processMetrics = metrics.method("ApiService.processData");
+        this.callLogLevel = timed ? Level.DEBUG : Level.INFO;
+        this.resultCache = resultCache;
     }
     
     /**
@@ -29,27 +137,303 @@ public class ApiService {
      * @return Processed result
      */
     public String processData(String input) {
-        logger.info("Processing data: {}", input);
+        boolean logCall = logger.isEnabledForLevel(callLogLevel);
+        if (logCall) {
+            logger.atLevel(callLogLevel).log("Processing data: {}", LogValues.truncate(input));
+        }
         
-        // Use common module utilities
-        String cleanedInput = StringUtils.isNotBlank(input) ? input.trim() : "";
-        String processedData = dataProcessor.processData("input", cleanedInput);
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            // Use common module utilities
+            String cleanedInput = StringUtils.isNotBlank(input) ? input.trim() : "";
+            String processedData = resultCache == null
+                    ? process(cleanedInput)
+                    : resultCache.get(cleanedInput, this::process);
+            
+            if (timed) {
+                processMetrics.recordSuccess(System.nanoTime() - start, input == null ? 0 : input.length(),
+                        processedData.length());
+            }
+            if (logCall) {
+                logger.atLevel(callLogLevel).log("Data processing completed");
+            }
+            return processedData;
+        } catch (RuntimeException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Process data and put the UTF-8 encoded result into the given buffer, starting at its position.
+     * Without a result cache the JSON is generated directly into the buffer.
+     * If the result does not fit, the buffer's position is left unchanged.
+     * @param input The input data to process
+     * @param out Buffer to write the result to
+     * @return Number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has too little space remaining
+     */
+    public int processData(String input, ByteBuffer out) {
+        boolean logCall = logger.isEnabledForLevel(callLogLevel);
+        if (logCall) {
+            logger.atLevel(callLogLevel).log("Processing data: {}", LogValues.truncate(input));
+        }
         
-        logger.info("Data processing completed");
-        return processedData;
+        long start = timed ? System.nanoTime() : 0;
+        int position = out.position();
+        try {
+            String cleanedInput = StringUtils.isNotBlank(input) ? input.trim() : "";
+            if (resultCache == null) {
+                dataProcessor().processData("input", cleanedInput, out);
+            } else {
+                out.put(resultCache.get(cleanedInput, this::process).getBytes(StandardCharsets.UTF_8));
+            }
+            int written = out.position() - position;
+            
+            if (timed) {
+                processMetrics.recordSuccess(System.nanoTime() - start, input == null ? 0 : input.length(), written);
+            }
+            if (logCall) {
+                logger.atLevel(callLogLevel).log("Data processing completed");
+            }
+            return written;
+        } catch (RuntimeException e) {
+            out.position(position);
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            throw e;
+        }
+    }
+    
+    private String process(String cleanedInput) {
+        return dataProcessor().processData("input", cleanedInput);
+    }
+    
+    private DataProcessor dataProcessor() {
+        DataProcessor current = dataProcessor;
+        if (current == null) {
+            synchronized (this) {
+                current = dataProcessor;
+                if (current == null) {
+                    current = new DataProcessor(metrics);
+                    dataProcessor = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Process data asynchronously.
+     * <p>
+     * Backpressure: if the maximum number of requests is already in flight, this call blocks until
+     * one of them completes. Cancelling the returned future before the request has started skips it;
+     * a request that is already running is not interrupted and its result is discarded.
+     * @param input The input data to process
+     * @return Future completed with the processed result
+     */
+    public CompletableFuture<String> processAsync(String input) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            executor().execute(() -> {
+                try {
+                    if (!future.isDone()) {
+                        future.complete(processData(input));
+                    }
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+    
+    /**
+     * Process a collection of inputs concurrently.
+     * <p>
+     * Requests may run in any order, but the results are returned in the iteration order of
+     * {@code inputs}. Submission applies the same backpressure as {@link #processAsync(String)},
+     * so this call returns once all but the last batch of in-flight requests have started.
+     * If any request fails, the returned future fails once all requests have finished.
+     * Cancelling the returned future cancels every request that has not started yet.
+     * @param inputs The input data to process
+     * @return Future completed with the processed results, in input order
+     */
+    public CompletableFuture<List<String>> processAll(Collection<String> inputs) {
+        List<CompletableFuture<String>> futures = new ArrayList<>(inputs.size());
+        for (String input : inputs) {
+            futures.add(processAsync(input));
+        }
+        CompletableFuture<List<String>> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+        all.whenComplete((results, error) -> {
+            if (all.isCancelled()) {
+                futures.forEach(future -> future.cancel(false));
+            }
+        });
+        return all;
+    }
+    
+    private ExecutorService executor() {
+        if (closed) {
+            throw new RejectedExecutionException("ApiService is closed");
+        }
+        ExecutorService current = executor;
+        if (current == null) {
+            synchronized (this) {
+                if (closed) {
+                    throw new RejectedExecutionException("ApiService is closed");
+                }
+                current = executor;
+                if (current == null) {
+                    current = newDefaultExecutor();
+                    executor = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Virtual-thread-per-task executor on Java 21+, otherwise a daemon pool with one thread per core.
+     * Looked up reflectively so the module still targets Java 17.
+     */
+    private static ExecutorService newDefaultExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            logger.debug("Virtual threads unavailable, using a platform thread pool");
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), task -> {
+            Thread thread = new Thread(task, "api-service-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
     
     /**
-     * Get service information
+     * Shut down the executor created for asynchronous requests, if this service owns one.
+     * Requests already submitted still complete; later asynchronous requests fail with a
+     * {@link RejectedExecutionException}.
+     */
+    @Override
+    public void close() {
+        ExecutorService current;
+        synchronized (this) {
+            closed = true;
+            current = executor;
+        }
+        if (ownsExecutor && current != null) {
+            current.shutdown();
+        }
+    }
+    
+    /**
+     * Get service information.
+     * The JSON is precomputed, so this is a single volatile read.
      * @return Service information as JSON string
      */
     public String getServiceInfo() {
+        return serviceInfo.get().json;
+    }
+    
+    /**
+     * Get service information as pre-encoded UTF-8 JSON, ready to be written to a socket.
+     * The returned array is shared between callers and must not be modified.
+     * @return Service information as UTF-8 encoded JSON
+     */
+    public byte[] getServiceInfoBytes() {
+        return serviceInfo.get().utf8;
+    }
+    
+    /**
+     * Get the service status reported by {@link #getServiceInfo()}
+     * @return Current status
+     */
+    public String getStatus() {
+        return serviceInfo.get().status;
+    }
+    
+    /**
+     * Change the service status. The cached service info is rebuilt only if the status actually changes.
+     * @param status The new status
+     */
+    public void setStatus(String status) {
+        Objects.requireNonNull(status, "status");
+        ServiceInfoSnapshot current;
+        do {
+            current = serviceInfo.get();
+            if (current.status.equals(status)) {
+                return;
+            }
+        } while (!serviceInfo.compareAndSet(current, snapshot(current.version, status)));
+        logger.info("Service status changed from {} to {}", current.status, status);
+    }
+    
+    /**
+     * Get the service version reported by {@link #getServiceInfo()}
+     * @return Current version
+     */
+    public String getVersion() {
+        return serviceInfo.get().version;
+    }
+    
+    /**
+     * Change the service version. The cached service info is rebuilt only if the version actually changes.
+     * @param version The new version
+     */
+    public void setVersion(String version) {
+        Objects.requireNonNull(version, "version");
+        ServiceInfoSnapshot current;
+        do {
+            current = serviceInfo.get();
+            if (current.version.equals(version)) {
+                return;
+            }
+        } while (!serviceInfo.compareAndSet(current, snapshot(version, current.status)));
+        logger.info("Service version changed from {} to {}", current.version, version);
+    }
+    
+    private ServiceInfoSnapshot snapshot(String version, String status) {
+        String json;
         try {
-            ServiceInfo info = new ServiceInfo("API Service", "1.0.0", "Active");
-            return objectMapper.writeValueAsString(info);
+            json = serviceInfoWriter.writeValueAsString(new ServiceInfo(SERVICE_NAME, version, status));
         } catch (Exception e) {
             logger.error("Error serializing service info", e);
-            return "{\"error\": \"Failed to get service info\"}";
+            json = SERVICE_INFO_ERROR;
+        }
+        return new ServiceInfoSnapshot(version, status, json);
+    }
+    
+    /**
+     * Immutable service info together with its serialized forms.
+     */
+    private static final class ServiceInfoSnapshot {
+        private final String version;
+        private final String status;
+        private final String json;
+        private final byte[] utf8;
+        
+        ServiceInfoSnapshot(String version, String status, String json) {
+            this.version = version;
+            this.status = status;
+            this.json = json;
+            this.utf8 = json.getBytes(StandardCharsets.UTF_8);
         }
     }
     
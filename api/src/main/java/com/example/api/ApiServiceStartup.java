@@ -0,0 +1,36 @@
+package com.example.api;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Starts an {@link ApiService}, answers one request and exits; the entry point of the {@code appcds}
+ * profile's jar.
+ * <p>
+ * This is the cold-start probe timed by {@code StartupBenchmark}. It prints the first response, to
+ * {@code processData} by default or to {@code getServiceInfo} with {@code info}, then the JVM uptime.
+ * With {@code train} it exercises every request path once, so that a training run with
+ * {@code -XX:ArchiveClassesAtExit} archives the classes they load.
+ */
+public final class ApiServiceStartup {
+    
+    private ApiServiceStartup() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "process";
+        try (ApiService apiService = new ApiService()) {
+            System.out.println(mode.equals("info") ? apiService.getServiceInfo() : apiService.processData("startup"));
+            // Loading the management classes is left until after the response has been written
+            System.out.println("First response after " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+            
+            if (mode.equals("train")) {
+                apiService.getServiceInfo();
+                apiService.processData("  buffered  ", ByteBuffer.allocate(1024));
+                apiService.processAll(List.of("one", "two")).get();
+                apiService.setStatus("Training");
+            }
+        }
+    }
+}
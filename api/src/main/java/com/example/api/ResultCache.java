@@ -0,0 +1,111 @@
+package com.example.api;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Bounded cache of processed results, keyed by normalized input.
+ *
+ * <p>Backed by Caffeine, which evicts with W-TinyLFU: frequently repeated inputs stay cached
+ * while one-off inputs are admitted only if they are likely to be requested again. Reads do not
+ * lock, and concurrent misses on the same key are coalesced so that only one caller computes
+ * the result while the others wait for it.
+ *
+ * <p>A cached result carries the {@code timestamp} of the call that computed it. Entries
+ * therefore expire a fixed time after they were written, never after their last read, so the
+ * TTL is an upper bound on how old a returned timestamp can be.
+ */
+public final class ResultCache {
+
+    /** Approximate fixed cost of an entry: the node, the two String headers and their arrays. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final Cache<String, String> cache;
+
+    private ResultCache(Cache<String, String> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Create a cache limited by the number of entries.
+     * @param maximumEntries Maximum number of cached results
+     * @param ttl Time after which a result is recomputed
+     * @return The cache
+     */
+    public static ResultCache withMaximumEntries(long maximumEntries, Duration ttl) {
+        return new ResultCache(Caffeine.newBuilder()
+                .maximumSize(maximumEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Create a cache limited by the approximate heap footprint of its keys and results.
+     * @param maximumBytes Maximum total weight of cached entries, in bytes
+     * @param ttl Time after which a result is recomputed
+     * @return The cache
+     */
+    public static ResultCache withMaximumBytes(long maximumBytes, Duration ttl) {
+        return new ResultCache(Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(ResultCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Approximate retained size of an entry. Strings are counted at two bytes per char,
+     * which overestimates compact Latin-1 strings.
+     */
+    static int weigh(String key, String value) {
+        long bytes = ENTRY_OVERHEAD_BYTES + 2L * key.length() + 2L * value.length();
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Return the cached result for a key, computing it on a miss.
+     * A computation that throws is not cached and the exception reaches every waiting caller.
+     * @param key Normalized input
+     * @param compute Function computing the result for the key
+     * @return The cached or computed result
+     */
+    String get(String key, Function<String, String> compute) {
+        return cache.get(key, compute);
+    }
+
+    /**
+     * Hit, miss, load and eviction counts since the cache was created.
+     * @return The statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Approximate number of cached results.
+     * @return The number of entries
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Run pending eviction and expiry work now rather than on Caffeine's maintenance executor.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Discard all cached results.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
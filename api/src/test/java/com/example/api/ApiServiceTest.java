@@ -1,11 +1,34 @@
 package com.example.api;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.example.metrics.InMemoryMetricsRegistry;
+
 /**
  * Test class for ApiService
  */
@@ -59,4 +82,185 @@ class ApiServiceTest {
         assertTrue(serviceInfo.contains("1.0.0"));
         assertTrue(serviceInfo.contains("Active"));
     }
-} 
\ No newline at end of file
+    
+    @Test
+    @DisplayName("Should serve cached service info until status or version change")
+    void testServiceInfoCaching() {
+        String first = apiService.getServiceInfo();
+        assertSame(first, apiService.getServiceInfo());
+        assertSame(apiService.getServiceInfoBytes(), apiService.getServiceInfoBytes());
+        assertArrayEquals(first.getBytes(StandardCharsets.UTF_8), apiService.getServiceInfoBytes());
+        
+        apiService.setStatus("Active");
+        assertSame(first, apiService.getServiceInfo());
+        
+        apiService.setStatus("Draining");
+        assertEquals("Draining", apiService.getStatus());
+        assertTrue(apiService.getServiceInfo().contains("Draining"));
+        assertFalse(apiService.getServiceInfo().contains("Active"));
+        
+        apiService.setVersion("1.1.0");
+        assertEquals("1.1.0", apiService.getVersion());
+        assertTrue(apiService.getServiceInfo().contains("1.1.0"));
+        assertArrayEquals(apiService.getServiceInfo().getBytes(StandardCharsets.UTF_8), apiService.getServiceInfoBytes());
+    }
+    
+    @Test
+    @DisplayName("Should process a collection asynchronously in input order")
+    void testProcessAll() throws Exception {
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            inputs.add(" item-" + i + " ");
+        }
+        
+        try (ApiService service = new ApiService(16)) {
+            List<String> results = service.processAll(inputs).get(10, TimeUnit.SECONDS);
+            
+            assertEquals(inputs.size(), results.size());
+            for (int i = 0; i < inputs.size(); i++) {
+                assertTrue(results.get(i).contains("\"value\":\"item-" + i + "\""));
+            }
+            assertTrue(service.processAsync(null).get(10, TimeUnit.SECONDS).contains("\"value\":\"\""));
+        }
+    }
+    
+    @Test
+    @DisplayName("Should bound concurrency and skip cancelled requests")
+    void testBoundedConcurrencyAndCancellation() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        try (ApiService service = new ApiService(2, executor) {
+            @Override
+            public String processData(String input) {
+                started.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.processData(input);
+            }
+        }) {
+            CompletableFuture<String> first = service.processAsync("a");
+            CompletableFuture<String> second = service.processAsync("b");
+            
+            // Both permits are taken, so a third submission must wait for one to be released.
+            CompletableFuture<CompletableFuture<String>> third = CompletableFuture.supplyAsync(() -> service.processAsync("c"));
+            Thread.sleep(200);
+            assertFalse(third.isDone());
+            assertTrue(started.get() <= 2);
+            
+            release.countDown();
+            assertTrue(first.get(10, TimeUnit.SECONDS).contains("\"a\""));
+            assertTrue(second.get(10, TimeUnit.SECONDS).contains("\"b\""));
+            assertTrue(third.get(10, TimeUnit.SECONDS).get(10, TimeUnit.SECONDS).contains("\"c\""));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should not run requests cancelled before they start")
+    void testCancelBeforeStart() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        try (ApiService service = new ApiService(8, executor) {
+            @Override
+            public String processData(String input) {
+                processed.incrementAndGet();
+                return super.processData(input);
+            }
+        }) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            CompletableFuture<List<String>> all = service.processAll(List.of("x", "y", "z"));
+            assertTrue(all.cancel(false));
+            release.countDown();
+            
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertEquals(0, processed.get());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should record call metrics when a registry is configured")
+    void testMetrics() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        try (ApiService service = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, registry)) {
+            service.processData(" metered ");
+            service.processData(null);
+        }
+        
+        assertEquals(2, registry.snapshot().get("ApiService.processData").calls());
+        assertEquals(9, registry.snapshot().get("ApiService.processData").bytesIn());
+        assertEquals(2, registry.snapshot().get("DataProcessor.processData").calls());
+        assertTrue(registry.toJson().contains("\"ApiService.processData\""));
+    }
+    
+    @Test
+    @DisplayName("Should answer repeated trimmed inputs from the result cache")
+    void testResultCache() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        ResultCache cache = ResultCache.withMaximumEntries(100, Duration.ofMinutes(1));
+        try (ApiService service = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, registry, cache)) {
+            String first = service.processData("cached");
+            
+            assertSame(first, service.processData("  cached  "));
+            assertSame(first, service.processData("cached"));
+        }
+        
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+        assertEquals(3, registry.snapshot().get("ApiService.processData").calls());
+        assertEquals(1, registry.snapshot().get("DataProcessor.processData").calls());
+    }
+    
+    @Test
+    @DisplayName("Should write processed data into a buffer and leave it untouched on overflow")
+    void testProcessDataIntoBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.position(10);
+        int written = apiService.processData("  buffered  ", buffer);
+        
+        assertEquals(buffer.position() - 10, written);
+        String json = new String(buffer.array(), 10, written, StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"name\":\"input\",\"value\":\"buffered\""));
+        
+        ByteBuffer small = ByteBuffer.allocate(8);
+        assertThrows(BufferOverflowException.class, () -> apiService.processData("too long for the buffer", small));
+        assertEquals(0, small.position());
+    }
+    
+    @Test
+    @DisplayName("Should not create the data processor until data is processed")
+    void testDataProcessorCreatedOnFirstUse() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        try (ApiService service = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, registry)) {
+            service.getServiceInfo();
+            assertFalse(registry.snapshot().containsKey("DataProcessor.processData"));
+            
+            service.processData("first");
+            assertEquals(1, registry.snapshot().get("DataProcessor.processData").calls());
+        }
+    }
+    
+    @Test
+    @DisplayName("Should reject asynchronous requests after close, even before the first one")
+    void testRejectsAsyncRequestsAfterClose() {
+        ApiService service = new ApiService(4);
+        service.close();
+        
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> service.processAsync("late").get(10, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+        assertTrue(service.processData("late").contains("late"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for ResultCache
+ */
+class ResultCacheTest {
+    
+    @Test
+    @DisplayName("Should compute a key once when many callers miss at the same time")
+    void testConcurrentMissesAreCoalesced() throws Exception {
+        ResultCache cache = ResultCache.withMaximumEntries(10, Duration.ofMinutes(1));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(CompletableFuture.supplyAsync(() -> cache.get("key", key -> {
+                    computations.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "value";
+                }), executor));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            
+            for (CompletableFuture<String> result : results) {
+                assertEquals("value", result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    @DisplayName("Should stay within the weight limit and count evictions")
+    void testWeightLimit() {
+        ResultCache cache = ResultCache.withMaximumBytes(64 * 1024, Duration.ofMinutes(1));
+        String value = "x".repeat(1000);
+        
+        for (int i = 0; i < 1000; i++) {
+            cache.get("key" + i, key -> value);
+        }
+        cache.cleanUp();
+        
+        assertTrue(cache.estimatedSize() * ResultCache.weigh("key000", value) <= 64 * 1024 + 4096);
+        assertTrue(cache.stats().evictionCount() > 0);
+    }
+    
+    @Test
+    @DisplayName("Should recompute entries after the TTL")
+    void testExpiry() throws Exception {
+        ResultCache cache = ResultCache.withMaximumEntries(10, Duration.ofMillis(50));
+        AtomicInteger computations = new AtomicInteger();
+        
+        cache.get("key", key -> "v" + computations.incrementAndGet());
+        Thread.sleep(200);
+        
+        assertEquals("v2", cache.get("key", key -> "v" + computations.incrementAndGet()));
+    }
+    
+    @Test
+    @DisplayName("Should not cache failed computations")
+    void testFailuresAreNotCached() {
+        ResultCache cache = ResultCache.withMaximumEntries(10, Duration.ofMinutes(1));
+        
+        assertThrows(IllegalStateException.class, () -> cache.get("key", key -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("ok", cache.get("key", key -> "ok"));
+    }
+}
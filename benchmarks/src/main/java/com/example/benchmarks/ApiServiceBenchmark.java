@@ -0,0 +1,61 @@
+package com.example.benchmarks;
+
+import com.example.api.ApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link ApiService} entry points across payload sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiServiceBenchmark {
+    
+    @Param({"SMALL", "1KB", "64KB", "1MB"})
+    public String payloadSize;
+    
+    private ApiService apiService;
+    private String input;
+    
+    @Setup
+    public void setUp() {
+        apiService = new ApiService();
+        input = "  " + Payloads.text(Payloads.sizeOf(payloadSize)) + "  ";
+    }
+    
+    @TearDown
+    public void tearDown() {
+        apiService.close();
+    }
+    
+    @Benchmark
+    public String processData() {
+        return apiService.processData(input);
+    }
+    
+    @Benchmark
+    public String getServiceInfo() {
+        return apiService.getServiceInfo();
+    }
+    
+    @Benchmark
+    public byte[] getServiceInfoBytes() {
+        return apiService.getServiceInfoBytes();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import com.example.api.ApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for {@link ApiService#processAll(java.util.Collection)}: requests per second
+ * as the number of worker threads grows. Throughput should scale roughly linearly up to
+ * the number of available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiServiceLoadBenchmark {
+    
+    private static final int REQUESTS = 10_000;
+    
+    @Param({"1", "2", "4", "8"})
+    public int workers;
+    
+    private ExecutorService executor;
+    private ApiService apiService;
+    private List<String> inputs;
+    
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(workers);
+        apiService = new ApiService(4 * workers, executor);
+        inputs = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            inputs.add("  request " + i + " " + Payloads.text(64) + "  ");
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        apiService.close();
+        executor.shutdownNow();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public List<String> processAll() {
+        return apiService.processAll(inputs).join();
+    }
+}
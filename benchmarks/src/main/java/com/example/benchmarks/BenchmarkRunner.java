@@ -0,0 +1,42 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the benchmarks with the GC profiler attached and writes the results as JSON,
+ * so runs of different releases can be diffed.
+ *
+ * <p>The result file defaults to {@code jmh-result-<label>.json} in the working directory, where
+ * the label comes from the {@code benchmark.label} system property (default {@code current}).
+ * Any standard JMH command line options may be passed and take precedence, for example
+ * {@code java -Dbenchmark.label=1.0.0 -cp benchmarks.jar com.example.benchmarks.BenchmarkRunner StringUtils}.
+ */
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String label = System.getProperty("benchmark.label", "current");
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(commandLine.getResult().orElse("jmh-result-" + label + ".json"))
+                .build();
+        
+        new Runner(options).run();
+        System.out.println("Results written to " + new File(options.getResult().get()).getAbsolutePath());
+    }
+}
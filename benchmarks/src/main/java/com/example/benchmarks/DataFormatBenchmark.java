@@ -0,0 +1,77 @@
+package com.example.benchmarks;
+
+import com.example.DataFormat;
+import com.example.DataProcessor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link DataFormat wire formats} of {@link DataProcessor}: encode and decode
+ * throughput, and the encoded size reported as the {@code encodedBytes} counter.
+ * Run with {@code -prof gc} (the default in {@link BenchmarkRunner}) for allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataFormatBenchmark {
+    
+    @Param({"JSON", "SMILE", "CBOR"})
+    public DataFormat format;
+    
+    /** {@code TEXT} is a single string value, {@code OBJECTS} a list of small objects with repeated keys. */
+    @Param({"TEXT", "OBJECTS"})
+    public String shape;
+    
+    @Param({"SMALL", "1KB", "64KB"})
+    public String payloadSize;
+    
+    private DataProcessor processor;
+    private Object value;
+    private byte[] encoded;
+    
+    /**
+     * Reports the size of the encoded record alongside the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Size {
+        
+        public long encodedBytes;
+    }
+    
+    @Setup
+    public void setUp() {
+        processor = new DataProcessor();
+        int length = Payloads.sizeOf(payloadSize);
+        value = "TEXT".equals(shape) ? Payloads.text(length) : Payloads.objects(length);
+        encoded = processor.processData("benchmark", value, format);
+    }
+    
+    @Benchmark
+    public byte[] encode(Size size) {
+        byte[] bytes = processor.processData("benchmark", value, format);
+        size.encodedBytes = bytes.length;
+        return bytes;
+    }
+    
+    @Benchmark
+    public Map<String, Object> decode() {
+        return processor.parseData(encoded, format);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.DataProcessor;
+import com.example.RecordUpdate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DataProcessor#processData(String, Object)} and {@link DataProcessor#parseData(String)}
+ * across payload sizes, and changing one field with {@link DataProcessor#updateData(String, RecordUpdate)}
+ * against parsing and serializing the record again. Reading one field through
+ * {@link DataProcessor#parseLazy(String)} is compared with parsing the whole record.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataProcessorBenchmark {
+    
+    @Param({"SMALL", "1KB", "64KB", "1MB"})
+    public String payloadSize;
+    
+    private DataProcessor processor;
+    private String value;
+    private String json;
+    private RecordUpdate update;
+    
+    @Setup
+    public void setUp() {
+        processor = new DataProcessor();
+        value = Payloads.text(Payloads.sizeOf(payloadSize));
+        json = processor.processData("benchmark", value);
+        update = new RecordUpdate().set("timestamp", 42L);
+    }
+    
+    @Benchmark
+    public String processData() {
+        return processor.processData("benchmark", value);
+    }
+    
+    @Benchmark
+    public Map<String, Object> parseData() {
+        return processor.parseData(json);
+    }
+    
+    /** Reads only the name, the common case for consumers of parsed records. */
+    @Benchmark
+    public String parseLazyName() {
+        return processor.parseLazy(json).name();
+    }
+    
+    @Benchmark
+    public Object parseMapName() {
+        return processor.parseData(json).get("name");
+    }
+    
+    @Benchmark
+    public String updateTimestamp() {
+        return processor.updateData(json, update);
+    }
+    
+    @Benchmark
+    public String reprocessTimestamp() {
+        Map<String, Object> record = processor.parseData(json);
+        return processor.processData((String) record.get("name"), record.get("value"), 42L);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.api.ApiService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what sharing Jackson codecs through {@code JsonCodecs} buys.
+ * 
+ * <ul>
+ *   <li>{@code coldFirstResponse*}: time from a fresh JVM to the first response of a new {@link ApiService},
+ *       once per fork, with and without the Blackbird module.</li>
+ *   <li>{@code newServiceFirstResponse} vs {@code perInstanceMapperFirstResponse}: cost of a new service
+ *       instance answering its first request, against building and warming a private mapper as every
+ *       instance used to.</li>
+ *   <li>{@code steadyState*}: warmed-up throughput, with and without Blackbird.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonCodecsBenchmark {
+    
+    private static final String BLACKBIRD = "-Dcom.example.json.module=blackbird";
+    
+    private ApiService apiService;
+    
+    @Setup
+    public void setUp() {
+        apiService = new ApiService();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(10)
+    public String coldFirstResponse() {
+        return new ApiService().processData("first request") + new ApiService().getServiceInfo();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    @Fork(value = 10, jvmArgsAppend = BLACKBIRD)
+    public String coldFirstResponseBlackbird() {
+        return new ApiService().processData("first request") + new ApiService().getServiceInfo();
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String newServiceFirstResponse() {
+        return new ApiService().processData("first request");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String perInstanceMapperFirstResponse() throws Exception {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "input");
+        data.put("value", "first request");
+        data.put("timestamp", System.currentTimeMillis());
+        return new ObjectMapper().writeValueAsString(data);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(1)
+    public String steadyState() {
+        return apiService.processData("steady request");
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(value = 1, jvmArgsAppend = BLACKBIRD)
+    public String steadyStateBlackbird() {
+        return apiService.processData("steady request");
+    }
+}
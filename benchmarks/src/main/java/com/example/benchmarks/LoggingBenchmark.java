@@ -0,0 +1,116 @@
+package com.example.benchmarks;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.api.ApiService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of {@link ApiService#processData(String)} with per-call logging
+ * disabled, written synchronously to a file, and written through the same async appender
+ * setup the api module ships. Run in sample mode so JMH reports p99 and p99.9.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"DISABLED", "SYNC", "ASYNC"})
+    public String logging;
+
+    @Param({"SMALL", "64KB"})
+    public String payloadSize;
+
+    private ApiService apiService;
+    private String input;
+    private Logger logger;
+    private Appender<ILoggingEvent> appender;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        logger = context.getLogger("com.example");
+        logger.setAdditive(false);
+        if ("DISABLED".equals(logging)) {
+            logger.setLevel(Level.WARN);
+        } else {
+            logger.setLevel(Level.INFO);
+            appender = "ASYNC".equals(logging) ? asyncAppender(context) : fileAppender(context);
+            logger.addAppender(appender);
+        }
+        apiService = new ApiService();
+        input = "  " + Payloads.text(Payloads.sizeOf(payloadSize)) + "  ";
+    }
+
+    @TearDown
+    public void tearDown() {
+        apiService.close();
+        if (appender != null) {
+            logger.detachAppender(appender);
+            appender.stop();
+        }
+        logger.setLevel(null);
+        logger.setAdditive(true);
+    }
+
+    @Benchmark
+    public String processData() {
+        return apiService.processData(input);
+    }
+
+    private static FileAppender<ILoggingEvent> fileAppender(LoggerContext context) {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{HH:mm:ss.SSS} [%thread] %-5level %logger{36} -- %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(new File(System.getProperty("java.io.tmpdir"), "logging-benchmark.log").getPath());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        return file;
+    }
+
+    /** Same settings as the api-http module's logback.xml, writing to a file instead of the console. */
+    private static AsyncAppender asyncAppender(LoggerContext context) {
+        AsyncAppender async = new AsyncAppender();
+        async.setContext(context);
+        async.setName("ASYNC");
+        async.setQueueSize(8192);
+        async.setDiscardingThreshold(1638);
+        async.setNeverBlock(true);
+        async.setIncludeCallerData(false);
+        async.addAppender(fileAppender(context));
+        async.start();
+        return async;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.benchmarks;
+
+import com.example.DataProcessor;
+import com.example.ProcessedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the untyped {@code Map} parse path of {@link DataProcessor} with the typed
+ * {@link ProcessedRecord} path. Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseDataBenchmark {
+    
+    private DataProcessor processor;
+    private String json;
+    
+    @Setup
+    public void setUp() {
+        processor = new DataProcessor();
+        json = processor.processData("benchmark", "some representative value");
+    }
+    
+    @Benchmark
+    public Map<String, Object> parseMap() {
+        return processor.parseData(json);
+    }
+    
+    @Benchmark
+    public ProcessedRecord parseRecord() {
+        return processor.parseRecord(json);
+    }
+    
+    @Benchmark
+    public ProcessedRecord parseTyped() {
+        return processor.parseData(json, ProcessedRecord.class);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic payload generators shared by the benchmarks.
+ */
+final class Payloads {
+    
+    private static final String[] WORDS = {
+        "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel"
+    };
+    
+    private Payloads() {
+    }
+    
+    /**
+     * Resolves a payload size parameter ({@code SMALL}, {@code 1KB}, {@code 64KB}, {@code 1MB}) to characters.
+     */
+    static int sizeOf(String size) {
+        switch (size) {
+            case "SMALL":
+                return 32;
+            case "1KB":
+                return 1024;
+            case "64KB":
+                return 64 * 1024;
+            case "1MB":
+                return 1024 * 1024;
+            default:
+                throw new IllegalArgumentException("Unknown payload size: " + size);
+        }
+    }
+    
+    /**
+     * Plain text made of space separated words.
+     */
+    static String text(int length) {
+        return repeat(length, " ");
+    }
+    
+    /**
+     * Words separated by padded commas, as fed to {@code splitAndTrim(str, ",")}.
+     */
+    static String delimited(int length) {
+        return repeat(length, " , ");
+    }
+    
+    /**
+     * Markup-heavy text where roughly every fifth character needs escaping.
+     */
+    static String html(int length) {
+        StringBuilder builder = new StringBuilder(length + 32);
+        int i = 0;
+        while (builder.length() < length) {
+            builder.append("<b class=\"w\">").append(WORDS[i++ % WORDS.length]).append("</b> & ");
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+    
+    /**
+     * A list of small objects with repeated keys whose JSON encoding is roughly {@code length} characters.
+     */
+    static List<Map<String, Object>> objects(int length) {
+        int count = Math.max(1, length / 64);
+        List<Map<String, Object>> objects = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            object.put("id", i);
+            object.put("word", WORDS[i % WORDS.length]);
+            object.put("score", i * 0.25);
+            object.put("active", i % 2 == 0);
+            objects.add(object);
+        }
+        return objects;
+    }
+    
+    /**
+     * Records as written by {@code DataProcessor.processData}, one JSON document each, modelled on
+     * an order event stream: a handful of event names, statuses, regions, currencies and channels
+     * recur in every document, customers recur less often and order ids never do.
+     */
+    static List<String> events(int count) {
+        String[] names = {"order.created", "order.paid", "order.packed", "order.shipped", "order.delivered",
+            "order.cancelled", "order.refunded", "order.returned"};
+        String[] statuses = {"PENDING", "OK", "FAILED", "RETRY"};
+        String[] regions = {"eu-west-1", "eu-central-1", "us-east-1", "us-west-2", "ap-south-1", "ap-northeast-1"};
+        String[] currencies = {"EUR", "USD", "JPY"};
+        String[] channels = {"web", "mobile", "partner"};
+        Random random = new Random(42);
+        List<String> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add("{\"name\":\"" + names[random.nextInt(names.length)] + "\",\"value\":{"
+                    + "\"status\":\"" + statuses[random.nextInt(statuses.length)] + "\","
+                    + "\"region\":\"" + regions[random.nextInt(regions.length)] + "\","
+                    + "\"currency\":\"" + currencies[random.nextInt(currencies.length)] + "\","
+                    + "\"channel\":\"" + channels[random.nextInt(channels.length)] + "\","
+                    + "\"customer\":\"customer-" + random.nextInt(5000) + "\","
+                    + "\"orderId\":\"" + new UUID(random.nextLong(), random.nextLong()) + "\","
+                    + "\"amount\":" + random.nextInt(100_000) / 100.0 + "},"
+                    + "\"timestamp\":" + (1_700_000_000_000L + i) + "}");
+        }
+        return events;
+    }
+    
+    private static String repeat(int length, String separator) {
+        StringBuilder builder = new StringBuilder(length + 16);
+        int i = 0;
+        while (builder.length() < length) {
+            builder.append(WORDS[i++ % WORDS.length]).append(separator);
+        }
+        builder.setLength(length);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.benchmarks;
+
+import com.example.RandomStrings;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random ID generation throughput: commons-lang3 {@code RandomStringUtils}, which shares one
+ * {@code Random}, against {@link RandomStrings}. The nested classes run the same benchmarks on
+ * one thread and on every available core; with no shared state the per-core score should not drop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class RandomStringBenchmark {
+    
+    private static final int BULK_COUNT = 100;
+    
+    @Param({"16", "32"})
+    public int length;
+    
+    @Benchmark
+    public String commonsLang() {
+        return RandomStringUtils.randomAlphanumeric(length);
+    }
+    
+    @Benchmark
+    public String threadLocal() {
+        return RandomStrings.alphanumeric().next(length);
+    }
+    
+    @Benchmark
+    public String secure() {
+        return RandomStrings.secureAlphanumeric().next(length);
+    }
+    
+    /** Normalized to strings per operation, comparable with the single-string benchmarks. */
+    @Benchmark
+    @OperationsPerInvocation(BULK_COUNT)
+    public List<String> threadLocalBulk() {
+        return RandomStrings.alphanumeric().next(BULK_COUNT, length);
+    }
+    
+    @Threads(1)
+    public static class OneThread extends RandomStringBenchmark {
+    }
+    
+    @Threads(Threads.MAX)
+    public static class AllThreads extends RandomStringBenchmark {
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.benchmarks;
+
+import com.example.ProcessedRecord;
+import com.example.RecordStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts per name over a time window: a {@link RecordStore} against the same records held as
+ * {@link ProcessedRecord}s on the heap. Run with {@code -prof gc}; the heap variant needs a
+ * heap large enough for every record, the store only for its dictionary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+public class RecordStoreBenchmark {
+    
+    private static final int NAMES = 100;
+    private static final long START = 1_700_000_000_000L;
+    
+    @Param({"1000000"})
+    public int records;
+    
+    @Param({"HEAP", "DIRECT", "MAPPED"})
+    public String storage;
+    
+    private List<ProcessedRecord> heap;
+    private RecordStore store;
+    private Path spillDirectory;
+    private long from;
+    private long to;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        String[] names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = "name-" + i;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        if (storage.equals("HEAP")) {
+            heap = new ArrayList<>(records);
+        } else {
+            spillDirectory = storage.equals("MAPPED") ? Files.createTempDirectory("record-store") : null;
+            store = new RecordStore(spillDirectory);
+        }
+        for (int i = 0; i < records; i++) {
+            String name = names[random.nextInt(NAMES)];
+            long timestamp = START + i;
+            Map<String, Object> value = Map.of("id", i, "score", random.nextDouble());
+            if (heap != null) {
+                heap.add(new ProcessedRecord(name, value, timestamp));
+            } else {
+                store.append(name, timestamp, value);
+            }
+        }
+        // The middle half of the records
+        from = START + records / 4;
+        to = START + records * 3L / 4;
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        if (spillDirectory != null) {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+    
+    @Benchmark
+    public Object countByNameInWindow() {
+        if (heap == null) {
+            return store.aggregateByName(from, to);
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (ProcessedRecord record : heap) {
+            if (record.timestamp() >= from && record.timestamp() < to) {
+                counts.merge(record.name(), 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+}
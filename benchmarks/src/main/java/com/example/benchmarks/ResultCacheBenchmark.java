@@ -0,0 +1,110 @@
+package com.example.benchmarks;
+
+import com.example.api.ApiService;
+import com.example.api.ResultCache;
+import com.example.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ApiService#processData(String)} with and without a {@link ResultCache}, for inputs drawn
+ * from a Zipf distribution over a fixed key space, as seen in production traffic.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ResultCacheBenchmark {
+    
+    private static final int KEYS = 10_000;
+    private static final int SAMPLES = 1 << 20;
+    
+    @Param({"NONE", "ENTRIES", "BYTES"})
+    public String cache;
+    
+    @Param({"SMALL", "1KB"})
+    public String payloadSize;
+    
+    private ApiService apiService;
+    private String[] inputs;
+    
+    /**
+     * Per-thread position in the shared sample sequence.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        
+        int next = (int) Thread.currentThread().getId() * 7919;
+    }
+    
+    @Setup
+    public void setUp() {
+        ResultCache resultCache;
+        switch (cache) {
+            case "ENTRIES":
+                resultCache = ResultCache.withMaximumEntries(KEYS / 10, Duration.ofMinutes(1));
+                break;
+            case "BYTES":
+                resultCache = ResultCache.withMaximumBytes(64L * 1024 * 1024, Duration.ofMinutes(1));
+                break;
+            default:
+                resultCache = null;
+        }
+        apiService = new ApiService(ApiService.DEFAULT_MAX_CONCURRENCY, null, MetricsRegistry.NOOP, resultCache);
+        
+        String[] keys = new String[KEYS];
+        String body = Payloads.text(Payloads.sizeOf(payloadSize));
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = " " + i + " " + body + " ";
+        }
+        inputs = new String[SAMPLES];
+        double[] cumulative = zipf(KEYS, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < SAMPLES; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble());
+            inputs[i] = keys[Math.min(index < 0 ? -index - 1 : index, KEYS - 1)];
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        apiService.close();
+    }
+    
+    @Benchmark
+    public String processData(Cursor cursor) {
+        return apiService.processData(inputs[cursor.next++ & (SAMPLES - 1)]);
+    }
+    
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+}
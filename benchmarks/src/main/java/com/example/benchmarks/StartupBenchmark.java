@@ -0,0 +1,100 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first response of a new JVM running {@code ApiServiceStartup}: from launching the
+ * process until the response is read from its output, so it includes JVM boot, class loading and
+ * Jackson and logback initialization.
+ * 
+ * <p>Needs the jar and archive built by the {@code appcds} profile of the {@code api} module
+ * ({@code mvn -Pappcds package}); set {@code -Dstartup.dir} if the benchmark is not run from the
+ * project root. {@code cds=OFF} disables class data sharing, {@code DEFAULT} uses the JDK's archive
+ * of its own classes and {@code APPCDS} adds the application archive from the training run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+public class StartupBenchmark {
+    
+    @Param({"OFF", "DEFAULT", "APPCDS"})
+    public String cds;
+    
+    @Param({"PROCESS", "INFO"})
+    public String request;
+    
+    private List<String> command;
+    private Process process;
+    
+    @Setup
+    public void setUp() {
+        Path dir = Paths.get(System.getProperty("startup.dir", "api/target"));
+        Path jar = dir.resolve("api-1.0.0.jar");
+        Path archive = dir.resolve("api.jsa");
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException(archive.toAbsolutePath() + " not found, build it with mvn -Pappcds package");
+        }
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        switch (cds) {
+            case "OFF":
+                command.add("-Xshare:off");
+                break;
+            case "APPCDS":
+                command.add("-XX:SharedArchiveFile=" + archive);
+                break;
+            default:
+                break;
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add(request.toLowerCase());
+    }
+    
+    @Benchmark
+    public String firstResponse() throws IOException {
+        process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        // Log output goes to the console too; the response is the first JSON line
+        String line;
+        while ((line = out.readLine()) != null) {
+            if (line.startsWith("{")) {
+                return line;
+            }
+        }
+        throw new IllegalStateException("Process exited without a response: " + command);
+    }
+    
+    @TearDown(Level.Invocation)
+    public void awaitExit() throws IOException, InterruptedException {
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        process.waitFor();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.benchmarks;
+
+import com.example.DataProcessor;
+import com.example.StringCanonicalizer;
+import com.example.metrics.MetricsRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the heap retained by a cache of parsed order events with and without a
+ * {@link StringCanonicalizer}, reported as the {@code retainedBytes} counter next to the
+ * canonicalizer's own {@code bytesSaved} estimate. The score of {@code parseAndRetain} includes
+ * the two full collections that bracket the measurement; {@code parse} shows the cost per document.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StringCanonicalizerBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean canonicalize;
+    
+    @Param({"200000"})
+    public int documents;
+    
+    private List<String> events;
+    private DataProcessor processor;
+    private int next;
+    
+    /**
+     * Reports the retained heap alongside the time.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        
+        public long retainedBytes;
+        public long bytesSaved;
+    }
+    
+    @Setup
+    public void setUp() {
+        events = Payloads.events(documents);
+        processor = newProcessor(null);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public List<Map<String, Object>> parseAndRetain(Heap heap) {
+        StringCanonicalizer canonicalizer = canonicalize ? new StringCanonicalizer() : null;
+        DataProcessor processor = newProcessor(canonicalizer);
+        long before = usedHeapAfterGc();
+        List<Map<String, Object>> cache = new ArrayList<>(events.size());
+        for (String event : events) {
+            cache.add(processor.parseData(event));
+        }
+        heap.retainedBytes = usedHeapAfterGc() - before;
+        heap.bytesSaved = canonicalizer != null ? canonicalizer.bytesSaved() : 0;
+        return cache;
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public Map<String, Object> parse() {
+        if (next == events.size()) {
+            next = 0;
+        }
+        return processor.parseData(events.get(next++));
+    }
+    
+    private DataProcessor newProcessor(StringCanonicalizer canonicalizer) {
+        StringCanonicalizer table = canonicalizer == null && canonicalize ? new StringCanonicalizer() : canonicalizer;
+        return new DataProcessor(MetricsRegistry.NOOP, null, table);
+    }
+    
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.benchmarks;
+
+import com.example.MultiPatternCounter;
+import com.example.StringUtils;
+import com.example.Utf8StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the {@link StringUtils} hot paths across payload sizes, and the {@link Utf8StringUtils}
+ * versions on the same payloads already encoded as UTF-8.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringUtilsBenchmark {
+    
+    @Param({"SMALL", "1KB", "64KB", "1MB"})
+    public String payloadSize;
+    
+    private String delimited;
+    private String html;
+    private String text;
+    private List<String> keywords;
+    private MultiPatternCounter counter;
+    private byte[] delimitedUtf8;
+    private ByteBuffer htmlUtf8;
+    private byte[] textUtf8;
+    
+    @Setup
+    public void setUp() {
+        int size = Payloads.sizeOf(payloadSize);
+        delimited = Payloads.delimited(size);
+        html = Payloads.html(size);
+        text = Payloads.text(size);
+        keywords = List.of("alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel",
+                "india", "juliett", "kilo", "lima", "mike", "november", "oscar", "papa");
+        counter = new MultiPatternCounter(keywords);
+        delimitedUtf8 = delimited.getBytes(StandardCharsets.UTF_8);
+        htmlUtf8 = ByteBuffer.wrap(html.getBytes(StandardCharsets.UTF_8));
+        textUtf8 = text.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Benchmark
+    public List<String> splitAndTrim() {
+        return StringUtils.splitAndTrim(delimited, ",");
+    }
+    
+    @Benchmark
+    public long splitAndTrimStream() {
+        return StringUtils.splitAndTrimStream(delimited, ",").count();
+    }
+    
+    @Benchmark
+    public long splitAndTrimStreamParallel() {
+        return StringUtils.splitAndTrimStream(delimited, ",").parallel().count();
+    }
+    
+    @Benchmark
+    public int splitAndTrimUtf8() {
+        return Utf8StringUtils.splitAndTrim(delimitedUtf8, 0, delimitedUtf8.length, ",", (start, end) -> { });
+    }
+    
+    @Benchmark
+    public String escapeHtml() {
+        return StringUtils.escapeHtml(html);
+    }
+    
+    @Benchmark
+    public ByteBuffer escapeHtmlUtf8() {
+        return Utf8StringUtils.escapeHtml(htmlUtf8);
+    }
+    
+    @Benchmark
+    public int countOccurrencesLongNeedle() {
+        return StringUtils.countOccurrences(text, "golf hotel alpha bravo");
+    }
+    
+    @Benchmark
+    public int countOccurrencesLongNeedleUtf8() {
+        return Utf8StringUtils.countOccurrences(textUtf8, 0, textUtf8.length, "golf hotel alpha bravo");
+    }
+    
+    @Benchmark
+    public int[] countKeywordsOneByOne() {
+        int[] counts = new int[keywords.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = StringUtils.countOccurrences(text, keywords.get(i));
+        }
+        return counts;
+    }
+    
+    @Benchmark
+    public int[] countKeywordsOneByOneUtf8() {
+        int[] counts = new int[keywords.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = Utf8StringUtils.countOccurrences(textUtf8, 0, textUtf8.length, keywords.get(i));
+        }
+        return counts;
+    }
+    
+    @Benchmark
+    public int[] countKeywordsMultiPattern() {
+        return counter.count(text);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example;
+
+/**
+ * Output layouts supported by the batch methods of {@link DataProcessor}.
+ */
+public enum BatchFormat {
+    
+    /**
+     * A single JSON array containing one object per record.
+     */
+    JSON_ARRAY,
+    
+    /**
+     * Newline-delimited JSON: one object per line, each line terminated by {@code '\n'}.
+     */
+    NDJSON
+}
@@ -0,0 +1,109 @@
+package com.example;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A coarse clock whose time is refreshed by a background ticker thread.
+ *
+ * <p>{@link #millis()} is a single volatile read, which makes it suitable for hot paths that
+ * stamp every record. The value lags the source clock by up to the configured resolution.
+ * The ticker is a daemon thread and runs until {@link #close()} is called; clocks obtained
+ * through {@link #withZone(ZoneId)} share it.
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    /**
+     * Starts a clock that caches {@link Clock#systemUTC()} with the given resolution.
+     *
+     * @param resolution how often the cached time is refreshed
+     */
+    public CachedClock(Duration resolution) {
+        this(Clock.systemUTC(), resolution);
+    }
+
+    /**
+     * Starts a clock that caches the given source clock with the given resolution.
+     *
+     * @param source the clock to read
+     * @param resolution how often the cached time is refreshed
+     */
+    public CachedClock(Clock source, Duration resolution) {
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("resolution must be positive: " + resolution);
+        }
+        this.ticker = new Ticker(source, resolution.toNanos());
+        this.zone = source.getZone();
+        ticker.start();
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.millis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(ticker.millis);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return zone.equals(this.zone) ? this : new CachedClock(ticker, zone);
+    }
+
+    /**
+     * Stops the ticker. The clock keeps returning the last cached time.
+     */
+    @Override
+    public void close() {
+        ticker.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedClock[" + zone + "]";
+    }
+
+    private static final class Ticker extends Thread {
+
+        private final Clock source;
+        private final long resolutionNanos;
+        volatile long millis;
+
+        Ticker(Clock source, long resolutionNanos) {
+            super("cached-clock-" + THREAD_IDS.incrementAndGet());
+            this.source = source;
+            this.resolutionNanos = resolutionNanos;
+            this.millis = source.millis();
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                millis = source.millis();
+                LockSupport.parkNanos(this, resolutionNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example;
+
+/**
+ * Wire formats supported by the binary {@code processData} and {@code parseData}
+ * methods of {@link DataProcessor}.
+ */
+public enum DataFormat {
+    
+    /**
+     * UTF-8 encoded JSON text, identical to the output of the {@code String} methods.
+     */
+    JSON,
+    
+    /**
+     * Jackson's binary JSON format. Repeated field names are back-referenced,
+     * which pays off for values that are lists of similar objects.
+     */
+    SMILE,
+    
+    /**
+     * Concise Binary Object Representation (RFC 8949).
+     */
+    CBOR
+}
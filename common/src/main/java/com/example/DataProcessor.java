@@ -1,12 +1,40 @@
 package com.example;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.example.metrics.MethodMetrics;
+import com.example.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
 
-import java.util.HashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Simple data processor that demonstrates JSON processing and logging capabilities.
@@ -14,10 +42,103 @@ import java.util.Map;
 public class DataProcessor {
     
     private static final Logger logger = LoggerFactory.getLogger(DataProcessor.class);
+    
+    /**
+     * Per-thread output buffer reused by {@link #processData(String, Object)}.
+     */
+    private static final ThreadLocal<ReusableWriter> BUFFER = ThreadLocal.withInitial(ReusableWriter::new);
+    
+    /**
+     * Per-thread output buffer reused by {@link #processData(String, Object, DataFormat)}.
+     */
+    private static final ThreadLocal<ReusableOutputStream> BYTES = ThreadLocal.withInitial(ReusableOutputStream::new);
+    
     private final ObjectMapper objectMapper;
+    private final ObjectReader mapReader;
+    private final ObjectReader recordReader;
+    
+    /** Whether calls are timed; false for {@link MetricsRegistry#NOOP}. */
+    private final boolean timed;
+    private final MethodMetrics processMetrics;
+    private final MethodMetrics parseMetrics;
+    private final MethodMetrics processBatchMetrics;
+    private final MethodMetrics parseBatchMetrics;
+    
+    /** Per-call log statements go to INFO without metrics, and to DEBUG once metrics replace them. */
+    private final Level callLogLevel;
+    
+    /** Source of record timestamps, or null when records are written without one. */
+    private final Clock clock;
+    
+    /** Table that parsed string values are canonicalized through, or null. */
+    private final StringCanonicalizer canonicalizer;
+    
+    /** Readers bound to the canonicalizer, by wire format and type; null without a canonicalizer. */
+    private final Map<DataFormat, ConcurrentMap<Class<?>, ObjectReader>> canonicalizingReaders;
+    
+    /** Reader lookup for the fields of lazy records, which are deserialized after parseLazy returns. */
+    private final Function<Class<?>, ObjectReader> lazyReaders;
     
     public DataProcessor() {
-        this.objectMapper = new ObjectMapper();
+        this(MetricsRegistry.NOOP);
+    }
+    
+    /**
+     * Creates a processor that records {@code processData}, {@code parseData}, {@code parseRecord} and the
+     * batch and file calls in the given registry. Calls that write to a {@code Writer} or a batch stream, or
+     * read from a stream, record 0 bytes for that side. With a registry other than {@link MetricsRegistry#NOOP}, per-call log statements move
+     * from INFO to DEBUG.
+     * 
+     * @param metrics the registry to record into
+     */
+    public DataProcessor(MetricsRegistry metrics) {
+        this(metrics, Clock.systemUTC());
+    }
+    
+    /**
+     * Creates a processor that stamps records with the given clock. Use {@link Clock#fixed} for
+     * tests and replay, and {@link CachedClock} on high-rate paths where millisecond reads show up.
+     * With a null clock the {@code timestamp} field is omitted, so identical inputs produce
+     * identical output.
+     * 
+     * @param metrics the registry to record into
+     * @param clock the source of record timestamps, or null to omit them
+     */
+    public DataProcessor(MetricsRegistry metrics, Clock clock) {
+        this(metrics, clock, null);
+    }
+    
+    /**
+     * Creates a processor that canonicalizes the string values it parses through the given table,
+     * so that documents held in long-lived caches share their recurring values. Field names are
+     * shared by Jackson in any case.
+     * 
+     * @param metrics the registry to record into
+     * @param clock the source of record timestamps, or null to omit them
+     * @param canonicalizer the table to canonicalize parsed strings through, or null to leave them as parsed
+     */
+    public DataProcessor(MetricsRegistry metrics, Clock clock, StringCanonicalizer canonicalizer) {
+        this.clock = clock;
+        this.canonicalizer = canonicalizer;
+        if (canonicalizer == null) {
+            this.canonicalizingReaders = null;
+            this.lazyReaders = JsonCodecs::reader;
+        } else {
+            this.canonicalizingReaders = new EnumMap<>(DataFormat.class);
+            for (DataFormat format : DataFormat.values()) {
+                canonicalizingReaders.put(format, new ConcurrentHashMap<>());
+            }
+            this.lazyReaders = type -> reader(DataFormat.JSON, type);
+        }
+        this.objectMapper = JsonCodecs.mapper();
+        this.mapReader = reader(DataFormat.JSON, Map.class);
+        this.recordReader = reader(DataFormat.JSON, ProcessedRecord.class);
+        this.timed = metrics != MetricsRegistry.NOOP;
+        this.processMetrics = metrics.method("DataProcessor.processData");
+        this.parseMetrics = metrics.method("DataProcessor.parseData");
+        this.processBatchMetrics = metrics.method("DataProcessor.processBatch");
+        this.parseBatchMetrics = metrics.method("DataProcessor.parseBatch");
+        this.callLogLevel = timed ? Level.DEBUG : Level.INFO;
     }
     
     /**
@@ -28,23 +149,351 @@ public class DataProcessor {
      * @return JSON string representation
      */
     public String processData(String name, Object value) {
-        logger.info("Processing data: name={}, value={}", name, value);
-        
-        Map<String, Object> data = new HashMap<>();
-        data.put("name", name);
-        data.put("value", value);
-        data.put("timestamp", System.currentTimeMillis());
+        return clock == null ? toJson(name, value, false, 0) : toJson(name, value, true, clock.millis());
+    }
+    
+    /**
+     * Processes data by converting it to JSON format with the given timestamp instead of
+     * one read from the clock, for callers that batch timestamps or replay records.
+     * The timestamp is written for any value, also by a processor without a clock.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param timestamp the timestamp to write, in milliseconds since the epoch
+     * @return JSON string representation
+     */
+    public String processData(String name, Object value, long timestamp) {
+        return toJson(name, value, true, timestamp);
+    }
+    
+    private String toJson(String name, Object value, boolean stamped, long timestamp) {
+        if (logger.isEnabledForLevel(callLogLevel)) {
+            logger.atLevel(callLogLevel).log("Processing data: name={}, value={}", name, LogValues.truncate(value));
+        }
         
+        long start = timed ? System.nanoTime() : 0;
+        ReusableWriter buffer = BUFFER.get();
         try {
-            String json = objectMapper.writeValueAsString(data);
-            logger.debug("Generated JSON: {}", json);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+                writeRecord(generator, name, value, stamped, timestamp);
+            }
+            String json = buffer.toString();
+            if (logger.isDebugEnabled()) {
+                logger.debug("Generated JSON: {}", LogValues.truncate(json));
+            }
+            if (timed) {
+                processMetrics.recordSuccess(System.nanoTime() - start, sizeOf(value), json.length());
+            }
             return json;
-        } catch (JsonProcessingException e) {
+        } catch (IOException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process data to JSON", e);
+            throw new RuntimeException("JSON processing failed", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+    
+    /**
+     * Processes data and writes the UTF-8 encoded JSON to the given stream.
+     * The stream is flushed but not closed.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param out the stream to write to
+     */
+    public void processData(String name, Object value, OutputStream out) {
+        processData(name, value, out, DataFormat.JSON);
+    }
+    
+    /**
+     * Processes data and writes it to the given stream in the given wire format.
+     * The stream is flushed but not closed.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param out the stream to write to
+     * @param format the wire format to produce
+     */
+    public void processData(String name, Object value, OutputStream out, DataFormat format) {
+        writeData(name, value, timed ? new ForwardingOutputStream(out) : out, format);
+    }
+    
+    /**
+     * Writes a record to a stream and records the call. The bytes written are recorded when the
+     * stream counts them.
+     */
+    private void writeData(String name, Object value, OutputStream out, DataFormat format) {
+        if (logger.isEnabledForLevel(callLogLevel)) {
+            logger.atLevel(callLogLevel).log("Processing data as {}: name={}, value={}", format, name,
+                    LogValues.truncate(value));
+        }
+        
+        long start = timed ? System.nanoTime() : 0;
+        try (JsonGenerator generator = createGenerator(format, out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeRecord(generator, name, value);
+        } catch (IOException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process data to {}", format, e);
+            throw new RuntimeException("JSON processing failed", e);
+        } catch (RuntimeException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process data to {}", format, e);
+            throw e;
+        }
+        if (timed) {
+            long written = out instanceof CountingOutputStream ? ((CountingOutputStream) out).count : 0;
+            processMetrics.recordSuccess(System.nanoTime() - start, sizeOf(value), written);
+        }
+    }
+    
+    /**
+     * Processes data into a byte array in the given wire format.
+     * For {@link DataFormat#JSON} the bytes are the UTF-8 encoding of {@link #processData(String, Object)}.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param format the wire format to produce
+     * @return the encoded record
+     */
+    public byte[] processData(String name, Object value, DataFormat format) {
+        if (logger.isEnabledForLevel(callLogLevel)) {
+            logger.atLevel(callLogLevel).log("Processing data as {}: name={}, value={}", format, name,
+                    LogValues.truncate(value));
+        }
+        
+        long start = timed ? System.nanoTime() : 0;
+        ReusableOutputStream buffer = BYTES.get();
+        try {
+            try (JsonGenerator generator = createGenerator(format, buffer)) {
+                writeRecord(generator, name, value);
+            }
+            byte[] bytes = buffer.toByteArray();
+            if (timed) {
+                processMetrics.recordSuccess(System.nanoTime() - start, sizeOf(value), bytes.length);
+            }
+            return bytes;
+        } catch (IOException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process data to {}", format, e);
+            throw new RuntimeException("JSON processing failed", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+    
+    /**
+     * Processes data and writes the JSON to the given writer.
+     * The writer is flushed but not closed.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param out the writer to write to
+     */
+    public void processData(String name, Object value, Writer out) {
+        if (logger.isEnabledForLevel(callLogLevel)) {
+            logger.atLevel(callLogLevel).log("Processing data: name={}, value={}", name, LogValues.truncate(value));
+        }
+        
+        long start = timed ? System.nanoTime() : 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            writeRecord(generator, name, value);
+        } catch (IOException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
             logger.error("Failed to process data to JSON", e);
             throw new RuntimeException("JSON processing failed", e);
+        } catch (RuntimeException e) {
+            if (timed) {
+                processMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process data to JSON", e);
+            throw e;
+        }
+        if (timed) {
+            processMetrics.recordSuccess(System.nanoTime() - start, sizeOf(value), 0);
+        }
+    }
+    
+    /**
+     * Processes data and puts the UTF-8 encoded JSON into the given buffer,
+     * starting at its current position. If processing fails, the position is restored.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param out the buffer to write to
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has too little space remaining
+     */
+    public int processData(String name, Object value, ByteBuffer out) {
+        return processData(name, value, out, DataFormat.JSON);
+    }
+    
+    /**
+     * Processes data and puts it into the given buffer in the given wire format,
+     * starting at its current position. If processing fails, including when the buffer
+     * overflows, the position is restored.
+     * 
+     * @param name the name to process
+     * @param value the value to process
+     * @param out the buffer to write to
+     * @param format the wire format to produce
+     * @return the number of bytes written
+     * @throws java.nio.BufferOverflowException if the buffer has too little space remaining
+     */
+    public int processData(String name, Object value, ByteBuffer out, DataFormat format) {
+        int start = out.position();
+        try {
+            writeData(name, value, new ByteBufferOutputStream(out), format);
+        } catch (RuntimeException e) {
+            out.position(start);
+            // Jackson wraps an overflow inside the value's serializer in a JsonMappingException
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof BufferOverflowException) {
+                    throw (BufferOverflowException) cause;
+                }
+            }
+            throw e;
+        }
+        return out.position() - start;
+    }
+    
+    /**
+     * Processes a batch of name-value pairs into a single JSON array.
+     * Each element has the same layout as the output of {@link #processData(String, Object)}.
+     * 
+     * @param records the name-value pairs to process
+     * @return JSON array string representation
+     */
+    public String processBatch(List<? extends Map.Entry<String, ?>> records) {
+        logger.atLevel(callLogLevel).log("Processing batch of {} records", records.size());
+        
+        long start = timed ? System.nanoTime() : 0;
+        ReusableWriter buffer = BUFFER.get();
+        try {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+                writeBatch(generator, records.iterator(), BatchFormat.JSON_ARRAY);
+            }
+            String json = buffer.toString();
+            if (timed) {
+                processBatchMetrics.recordSuccess(System.nanoTime() - start, 0, json.length());
+            }
+            return json;
+        } catch (IOException e) {
+            if (timed) {
+                processBatchMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process batch to JSON", e);
+            throw new RuntimeException("JSON processing failed", e);
+        } finally {
+            buffer.reset();
         }
     }
     
+    /**
+     * Processes name-value pairs as they are produced by the iterator and writes
+     * them to the given stream as UTF-8 encoded JSON. The stream is flushed but not closed.
+     * 
+     * @param records the name-value pairs to process
+     * @param out the stream to write to
+     * @param format the batch layout to produce
+     * @return the number of records written
+     */
+    public long processBatch(Iterator<? extends Map.Entry<String, ?>> records, OutputStream out,
+                             BatchFormat format) {
+        logger.atLevel(callLogLevel).log("Processing batch as {}", format);
+        
+        long start = timed ? System.nanoTime() : 0;
+        long count;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            count = writeBatch(generator, records, format);
+        } catch (IOException e) {
+            if (timed) {
+                processBatchMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to process batch to JSON", e);
+            throw new RuntimeException("JSON processing failed", e);
+        }
+        if (timed) {
+            processBatchMetrics.recordSuccess(System.nanoTime() - start, 0, 0);
+        }
+        return count;
+    }
+    
+    private long writeBatch(JsonGenerator generator, Iterator<? extends Map.Entry<String, ?>> records,
+                                   BatchFormat format) throws IOException {
+        long count = 0;
+        if (format == BatchFormat.JSON_ARRAY) {
+            generator.writeStartArray();
+        } else {
+            // Records are separated by the explicit newline below, not by the default space.
+            generator.setRootValueSeparator(null);
+        }
+        while (records.hasNext()) {
+            Map.Entry<String, ?> record = records.next();
+            writeRecord(generator, record.getKey(), record.getValue());
+            if (format == BatchFormat.NDJSON) {
+                generator.writeRaw('\n');
+            }
+            count++;
+        }
+        if (format == BatchFormat.JSON_ARRAY) {
+            generator.writeEndArray();
+        }
+        return count;
+    }
+    
+    /**
+     * Size recorded as bytes in for a value: its length for text, otherwise 0.
+     */
+    private static long sizeOf(Object value) {
+        return value instanceof CharSequence ? ((CharSequence) value).length() : 0;
+    }
+    
+    private static JsonGenerator createGenerator(DataFormat format, OutputStream out) throws IOException {
+        return JsonCodecs.mapper(format).getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+    
+    /**
+     * Writes a record stamped with the clock's current time, or without a timestamp field when
+     * there is no clock.
+     */
+    private void writeRecord(JsonGenerator generator, String name, Object value) throws IOException {
+        if (clock == null) {
+            writeRecord(generator, name, value, false, 0);
+        } else {
+            writeRecord(generator, name, value, true, clock.millis());
+        }
+    }
+    
+    /**
+     * Writes a single record object. Field order matches the order the
+     * map-based implementation produced, so output is unchanged.
+     */
+    private static void writeRecord(JsonGenerator generator, String name, Object value, boolean stamped,
+                                    long timestamp) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("name", name);
+        generator.writeFieldName("value");
+        generator.writeObject(value);
+        if (stamped) {
+            generator.writeNumberField("timestamp", timestamp);
+        }
+        generator.writeEndObject();
+    }
+    
     /**
      * Parses JSON string back to a Map.
      * 
@@ -53,18 +502,511 @@ public class DataProcessor {
      */
     @SuppressWarnings("unchecked")
     public Map<String, Object> parseData(String json) {
-        logger.info("Parsing JSON data");
+        logger.atLevel(callLogLevel).log("Parsing JSON data");
         
+        long start = timed ? System.nanoTime() : 0;
         try {
-            Map<String, Object> result = objectMapper.readValue(json, Map.class);
-            logger.debug("Parsed data: {}", result);
+            Map<String, Object> result = mapReader.readValue(json);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed data: {}", LogValues.truncate(result));
+            }
+            if (timed) {
+                parseMetrics.recordSuccess(System.nanoTime() - start, json.length(), 0);
+            }
             return result;
         } catch (JsonProcessingException e) {
+            if (timed) {
+                parseMetrics.recordError(System.nanoTime() - start);
+            }
             logger.error("Failed to parse JSON data", e);
             throw new RuntimeException("JSON parsing failed", e);
         }
     }
     
+    /**
+     * Parses JSON string into a {@link ProcessedRecord}.
+     * Unlike {@link #parseData(String)} the timestamp stays a primitive and no map is built.
+     * 
+     * @param json the JSON string to parse
+     * @return parsed record
+     */
+    public ProcessedRecord parseRecord(String json) {
+        logger.atLevel(callLogLevel).log("Parsing JSON record");
+        
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            ProcessedRecord result = recordReader.readValue(json);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed record: {}", LogValues.truncate(result));
+            }
+            if (timed) {
+                parseMetrics.recordSuccess(System.nanoTime() - start, json.length(), 0);
+            }
+            return result;
+        } catch (JsonProcessingException e) {
+            if (timed) {
+                parseMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse JSON record", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    /**
+     * Indexes a JSON record without deserializing it. Fields are deserialized when they are
+     * read from the returned view, so callers that only need {@code name} or {@code timestamp}
+     * do not pay for a large {@code value}.
+     * 
+     * @param json the JSON object to index
+     * @return a lazy view of the record
+     */
+    public LazyRecord parseLazy(String json) {
+        logger.atLevel(callLogLevel).log("Indexing JSON record");
+        
+        try {
+            return LazyRecord.index(objectMapper.getFactory(), json, canonicalizer, lazyReaders);
+        } catch (IOException e) {
+            logger.error("Failed to index JSON record", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    /**
+     * Parses JSON string into an instance of the given type.
+     * The reader for each type is created once and shared through {@link JsonCodecs}.
+     * 
+     * @param json the JSON string to parse
+     * @param type the type to bind to
+     * @param <T> the result type
+     * @return parsed value
+     */
+    public <T> T parseData(String json, Class<T> type) {
+        logger.atLevel(callLogLevel).log("Parsing JSON data as {}", type.getSimpleName());
+        
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            T result = reader(DataFormat.JSON, type).readValue(json);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed data: {}", LogValues.truncate(result));
+            }
+            if (timed) {
+                parseMetrics.recordSuccess(System.nanoTime() - start, json.length(), 0);
+            }
+            return result;
+        } catch (JsonProcessingException e) {
+            if (timed) {
+                parseMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse JSON data", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    /**
+     * Parses an encoded record in the given wire format back to a Map.
+     * The result is the same as parsing the JSON produced for the same record.
+     * 
+     * @param data the encoded record
+     * @param format the wire format of the data
+     * @return parsed Map
+     */
+    public Map<String, Object> parseData(byte[] data, DataFormat format) {
+        return parseData(data, 0, data.length, format);
+    }
+    
+    /**
+     * Parses an encoded record in the given wire format back to a Map, reading the
+     * buffer from its position to its limit. The buffer's position is advanced to its limit.
+     * 
+     * @param data the encoded record
+     * @param format the wire format of the data
+     * @return parsed Map
+     */
+    public Map<String, Object> parseData(ByteBuffer data, DataFormat format) {
+        if (data.hasArray()) {
+            Map<String, Object> result = parseData(data.array(), data.arrayOffset() + data.position(),
+                    data.remaining(), format);
+            data.position(data.limit());
+            return result;
+        }
+        byte[] copy = new byte[data.remaining()];
+        data.get(copy);
+        return parseData(copy, 0, copy.length, format);
+    }
+    
+    private Map<String, Object> parseData(byte[] data, int offset, int length, DataFormat format) {
+        logger.atLevel(callLogLevel).log("Parsing {} data", format);
+        
+        long start = timed ? System.nanoTime() : 0;
+        try {
+            Map<String, Object> result = reader(format, Map.class).readValue(data, offset, length);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed data: {}", LogValues.truncate(result));
+            }
+            if (timed) {
+                parseMetrics.recordSuccess(System.nanoTime() - start, length, 0);
+            }
+            return result;
+        } catch (IOException e) {
+            if (timed) {
+                parseMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse {} data", format, e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    /**
+     * Applies field-level changes to a JSON record without parsing it into a tree.
+     * Fields the update does not touch are streamed from input to output unchanged.
+     * 
+     * @param json the JSON object to update
+     * @param update the changes to apply
+     * @return the updated JSON
+     */
+    public String updateData(String json, RecordUpdate update) {
+        logger.atLevel(callLogLevel).log("Updating JSON data: {}", update);
+        
+        ReusableWriter buffer = BUFFER.get();
+        try {
+            try (JsonParser parser = objectMapper.getFactory().createParser(json);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer)) {
+                update.apply(parser, generator, json);
+            }
+            return buffer.toString();
+        } catch (IOException e) {
+            logger.error("Failed to update JSON data", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+    
+    /**
+     * Applies field-level changes to an encoded record in the given wire format,
+     * producing the same wire format.
+     * 
+     * @param data the encoded object to update
+     * @param format the wire format of the data
+     * @param update the changes to apply
+     * @return the updated record
+     */
+    public byte[] updateData(byte[] data, DataFormat format, RecordUpdate update) {
+        logger.atLevel(callLogLevel).log("Updating {} data: {}", format, update);
+        
+        ReusableOutputStream buffer = BYTES.get();
+        try {
+            try (JsonParser parser = JsonCodecs.mapper(format).getFactory().createParser(data);
+                 JsonGenerator generator = createGenerator(format, buffer)) {
+                update.apply(parser, generator, null);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            logger.error("Failed to update {} data", format, e);
+            throw new RuntimeException("JSON parsing failed", e);
+        } finally {
+            buffer.reset();
+        }
+    }
+    
+    /**
+     * Parses a batch produced by {@link #processBatch(List)} or {@link #processBatch(Iterator, OutputStream, BatchFormat)}.
+     * Both a top-level JSON array and newline-delimited JSON are accepted.
+     * 
+     * @param json the JSON array or NDJSON string to parse
+     * @return the parsed records, in input order
+     */
+    public List<Map<String, Object>> parseBatch(String json) {
+        logger.atLevel(callLogLevel).log("Parsing JSON batch");
+        
+        long start = timed ? System.nanoTime() : 0;
+        List<Map<String, Object>> result = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            Consumer<Map<String, Object>> collector = result::add;
+            readBatch(parser, mapReader, collector);
+        } catch (IOException e) {
+            if (timed) {
+                parseBatchMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse JSON batch", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+        if (timed) {
+            parseBatchMetrics.recordSuccess(System.nanoTime() - start, json.length(), 0);
+        }
+        return result;
+    }
+    
+    /**
+     * Incrementally parses a batch from the given stream, handing each record to the
+     * consumer as soon as it has been read. Only one record is held in memory at a time.
+     * Both a top-level JSON array and newline-delimited JSON are accepted.
+     * The stream is not closed.
+     * 
+     * @param in the stream to read UTF-8 encoded JSON from
+     * @param consumer receives each parsed record, in input order
+     * @return the number of records parsed
+     */
+    public long parseBatch(InputStream in, Consumer<? super Map<String, Object>> consumer) {
+        logger.atLevel(callLogLevel).log("Parsing JSON batch stream");
+        
+        long start = timed ? System.nanoTime() : 0;
+        long count;
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            count = readBatch(parser, mapReader, consumer);
+        } catch (IOException e) {
+            if (timed) {
+                parseBatchMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse JSON batch", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+        if (timed) {
+            parseBatchMetrics.recordSuccess(System.nanoTime() - start, 0, 0);
+        }
+        return count;
+    }
+    
+    /**
+     * Parses a batch file by memory-mapping it, handing each record to the consumer as soon as it
+     * has been read. The file is never loaded onto the heap as a whole, so heap use stays flat no
+     * matter how large it is. Both a top-level JSON array and newline-delimited JSON are accepted.
+     * 
+     * @param path the UTF-8 encoded JSON file to read
+     * @param consumer receives each parsed record, in file order
+     * @return the number of records parsed
+     */
+    public long parseFile(Path path, Consumer<? super Map<String, Object>> consumer) {
+        return parseFile(path, mapReader, consumer);
+    }
+    
+    /**
+     * Parses a batch file by memory-mapping it, binding each record to the given type.
+     * 
+     * @param path the UTF-8 encoded JSON file to read
+     * @param type the type to bind each record to
+     * @param consumer receives each parsed record, in file order
+     * @param <T> the record type
+     * @return the number of records parsed
+     * @see #parseFile(Path, Consumer)
+     */
+    public <T> long parseFile(Path path, Class<T> type, Consumer<? super T> consumer) {
+        return parseFile(path, reader(DataFormat.JSON, type), consumer);
+    }
+    
+    private <T> long parseFile(Path path, ObjectReader reader, Consumer<? super T> consumer) {
+        logger.atLevel(callLogLevel).log("Parsing JSON file: {}", path);
+        
+        long start = timed ? System.nanoTime() : 0;
+        long count;
+        try (JsonParser parser = objectMapper.getFactory().createParser(new MappedFileInputStream(path))) {
+            count = readBatch(parser, reader, consumer);
+        } catch (IOException e) {
+            if (timed) {
+                parseBatchMetrics.recordError(System.nanoTime() - start);
+            }
+            logger.error("Failed to parse JSON file", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+        if (timed) {
+            parseBatchMetrics.recordSuccess(System.nanoTime() - start, 0, 0);
+        }
+        return count;
+    }
+    
+    /**
+     * Lazily parses a memory-mapped batch file as a stream of records.
+     * Records are read as the stream is consumed. The stream must be closed to release the file,
+     * for example with try-with-resources. Parse errors during iteration are thrown as
+     * {@link java.io.UncheckedIOException}.
+     * 
+     * @param path the UTF-8 encoded JSON file to read
+     * @return stream of parsed records, in file order
+     * @see #parseFile(Path, Consumer)
+     */
+    public Stream<Map<String, Object>> streamFile(Path path) {
+        logger.atLevel(callLogLevel).log("Streaming JSON file: {}", path);
+        
+        try {
+            JsonParser parser = objectMapper.getFactory().createParser(new MappedFileInputStream(path));
+            Iterator<Map<String, Object>> records = new JsonRecordIterator<>(parser, mapReader);
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .onClose(() -> {
+                        try {
+                            parser.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+        } catch (IOException e) {
+            logger.error("Failed to open JSON file", e);
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    private static <T> long readBatch(JsonParser parser, ObjectReader reader, Consumer<? super T> consumer)
+            throws IOException {
+        long count = 0;
+        try {
+            Iterator<T> records = new JsonRecordIterator<>(parser, reader);
+            while (records.hasNext()) {
+                consumer.accept(records.next());
+                count++;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the reader for a type, bound to the canonicalizer if there is one. Binding creates a
+     * new reader, so bound readers are cached here rather than created per call.
+     */
+    private ObjectReader reader(DataFormat format, Class<?> type) {
+        if (canonicalizer == null) {
+            return JsonCodecs.reader(format, type);
+        }
+        ConcurrentMap<Class<?>, ObjectReader> readers = canonicalizingReaders.get(format);
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type, t -> JsonCodecs.reader(format, t, canonicalizer));
+        }
+        return reader;
+    }
+    
+    /**
+     * Unsynchronized, resettable writer backed by a {@link StringBuilder}.
+     * Only ever used by the thread that owns it.
+     */
+    private static final class ReusableWriter extends Writer {
+        
+        /** Buffers that grew past this size are dropped instead of being kept around. */
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+        
+        private StringBuilder builder = new StringBuilder(256);
+        
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            builder.append(cbuf, off, len);
+        }
+        
+        @Override
+        public void write(String str, int off, int len) {
+            builder.append(str, off, off + len);
+        }
+        
+        @Override
+        public void write(int c) {
+            builder.append((char) c);
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public void close() {
+        }
+        
+        void reset() {
+            if (builder.capacity() > MAX_RETAINED_CAPACITY) {
+                builder = new StringBuilder(256);
+            } else {
+                builder.setLength(0);
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+    
+    /**
+     * Byte array stream whose buffer is kept between calls on the same thread.
+     */
+    private static final class ReusableOutputStream extends ByteArrayOutputStream {
+        
+        /** Buffers that grew past this size are dropped instead of being kept around. */
+        private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+        
+        ReusableOutputStream() {
+            super(256);
+        }
+        
+        @Override
+        public synchronized void reset() {
+            if (buf.length > MAX_RETAINED_CAPACITY) {
+                buf = new byte[256];
+            }
+            super.reset();
+        }
+    }
+    
+    /**
+     * Output stream that counts the bytes written to it.
+     */
+    private abstract static class CountingOutputStream extends OutputStream {
+        
+        long count;
+    }
+    
+    /**
+     * Counts the bytes passed on to another stream. Closing it does not close the target.
+     */
+    private static final class ForwardingOutputStream extends CountingOutputStream {
+        
+        private final OutputStream target;
+        
+        ForwardingOutputStream(OutputStream target) {
+            this.target = target;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target.write(b, off, len);
+            count += len;
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+        }
+    }
+    
+    /**
+     * Adapts a {@link ByteBuffer} to the {@link OutputStream} interface.
+     */
+    private static final class ByteBufferOutputStream extends CountingOutputStream {
+        
+        private final ByteBuffer buffer;
+        
+        ByteBufferOutputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        public void write(int b) {
+            buffer.put((byte) b);
+            count++;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) {
+            buffer.put(b, off, len);
+            count += len;
+        }
+    }
+    
     public static void main(String[] args) {
         DataProcessor processor = new DataProcessor();
         
@@ -0,0 +1,85 @@
+package com.example;
+
+import java.util.Arrays;
+
+/**
+ * Boyer-Moore-Horspool matcher for a single, fixed pattern.
+ * 
+ * <p>The bad-character table is indexed by the low byte of each character, so it stays
+ * small for any alphabet; characters that share a low byte get the smaller, safe shift.
+ * Long patterns let the search skip most of the text, which pays off once the pattern is
+ * a dozen or more characters long. Instances are immutable and thread-safe.
+ */
+public final class HorspoolMatcher {
+    
+    private final String pattern;
+    private final int[] shifts = new int[256];
+    
+    /**
+     * Creates a matcher for the given pattern.
+     * 
+     * @param pattern the non-empty pattern to search for
+     */
+    public HorspoolMatcher(String pattern) {
+        if (pattern.isEmpty()) {
+            throw new IllegalArgumentException("Pattern must not be empty");
+        }
+        this.pattern = pattern;
+        int m = pattern.length();
+        Arrays.fill(shifts, m);
+        for (int j = 0; j < m - 1; j++) {
+            shifts[pattern.charAt(j) & 0xFF] = m - 1 - j;
+        }
+    }
+    
+    /**
+     * Finds the first occurrence of the pattern at or after {@code from}.
+     * 
+     * @param text the text to search
+     * @param from the index to start searching at
+     * @return the index of the match, or -1 if there is none
+     */
+    public int indexOf(CharSequence text, int from) {
+        int m = pattern.length();
+        char lastChar = pattern.charAt(m - 1);
+        for (int i = Math.max(from, 0), last = text.length() - m; i <= last; ) {
+            char c = text.charAt(i + m - 1);
+            if (c == lastChar) {
+                int k = m - 2;
+                while (k >= 0 && text.charAt(i + k) == pattern.charAt(k)) {
+                    k--;
+                }
+                if (k < 0) {
+                    return i;
+                }
+            }
+            i += shifts[c & 0xFF];
+        }
+        return -1;
+    }
+    
+    /**
+     * Counts the non-overlapping occurrences of the pattern, scanning left to right.
+     * 
+     * @param text the text to search
+     * @return the number of occurrences
+     */
+    public int count(CharSequence text) {
+        int count = 0;
+        int index = indexOf(text, 0);
+        while (index >= 0) {
+            count++;
+            index = indexOf(text, index + pattern.length());
+        }
+        return count;
+    }
+    
+    /**
+     * Returns the pattern this matcher searches for.
+     * 
+     * @return the pattern
+     */
+    public String getPattern() {
+        return pattern;
+    }
+}
@@ -0,0 +1,367 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * HTML 4.0 escaper and unescaper producing the same output as commons-lang3
+ * {@code StringEscapeUtils.escapeHtml4}/{@code unescapeHtml4}.
+ * 
+ * <p>Escaping scans the input once against a table indexed by character.
+ * Unescaping resolves named entities through an open-addressed hash table that is
+ * probed directly against the input, and decodes decimal and hexadecimal numeric
+ * entities terminated by a semicolon. Neither direction allocates when the input
+ * contains nothing to translate.
+ */
+public final class HtmlEscaper {
+    
+    /** Highest character that has a named entity (U+2666, {@code &diams;}). */
+    private static final int MAX_ESCAPED_CHAR = 0x2666;
+    
+    /** Longest entity name, excluding the surrounding {@code &} and {@code ;}. */
+    private static final int MAX_NAME_LENGTH = 8;
+    
+    private static final int HASH_SIZE = 512;
+    private static final int HASH_MASK = HASH_SIZE - 1;
+    
+    /** Replacement text per character, or null when the character is written as is. */
+    private static final String[] ESCAPES = new String[MAX_ESCAPED_CHAR + 1];
+    
+    /** Entity names and their characters, keyed by {@link #hash(CharSequence, int, int)}. */
+    private static final String[] NAMES = new String[HASH_SIZE];
+    private static final char[] CHARS = new char[HASH_SIZE];
+    
+    static {
+        add(0x0022, "quot"); add(0x0026, "amp"); add(0x003C, "lt"); add(0x003E, "gt");
+        add(0x00A0, "nbsp"); add(0x00A1, "iexcl"); add(0x00A2, "cent"); add(0x00A3, "pound");
+        add(0x00A4, "curren"); add(0x00A5, "yen"); add(0x00A6, "brvbar"); add(0x00A7, "sect");
+        add(0x00A8, "uml"); add(0x00A9, "copy"); add(0x00AA, "ordf"); add(0x00AB, "laquo");
+        add(0x00AC, "not"); add(0x00AD, "shy"); add(0x00AE, "reg"); add(0x00AF, "macr");
+        add(0x00B0, "deg"); add(0x00B1, "plusmn"); add(0x00B2, "sup2"); add(0x00B3, "sup3");
+        add(0x00B4, "acute"); add(0x00B5, "micro"); add(0x00B6, "para"); add(0x00B7, "middot");
+        add(0x00B8, "cedil"); add(0x00B9, "sup1"); add(0x00BA, "ordm"); add(0x00BB, "raquo");
+        add(0x00BC, "frac14"); add(0x00BD, "frac12"); add(0x00BE, "frac34"); add(0x00BF, "iquest");
+        add(0x00C0, "Agrave"); add(0x00C1, "Aacute"); add(0x00C2, "Acirc"); add(0x00C3, "Atilde");
+        add(0x00C4, "Auml"); add(0x00C5, "Aring"); add(0x00C6, "AElig"); add(0x00C7, "Ccedil");
+        add(0x00C8, "Egrave"); add(0x00C9, "Eacute"); add(0x00CA, "Ecirc"); add(0x00CB, "Euml");
+        add(0x00CC, "Igrave"); add(0x00CD, "Iacute"); add(0x00CE, "Icirc"); add(0x00CF, "Iuml");
+        add(0x00D0, "ETH"); add(0x00D1, "Ntilde"); add(0x00D2, "Ograve"); add(0x00D3, "Oacute");
+        add(0x00D4, "Ocirc"); add(0x00D5, "Otilde"); add(0x00D6, "Ouml"); add(0x00D7, "times");
+        add(0x00D8, "Oslash"); add(0x00D9, "Ugrave"); add(0x00DA, "Uacute"); add(0x00DB, "Ucirc");
+        add(0x00DC, "Uuml"); add(0x00DD, "Yacute"); add(0x00DE, "THORN"); add(0x00DF, "szlig");
+        add(0x00E0, "agrave"); add(0x00E1, "aacute"); add(0x00E2, "acirc"); add(0x00E3, "atilde");
+        add(0x00E4, "auml"); add(0x00E5, "aring"); add(0x00E6, "aelig"); add(0x00E7, "ccedil");
+        add(0x00E8, "egrave"); add(0x00E9, "eacute"); add(0x00EA, "ecirc"); add(0x00EB, "euml");
+        add(0x00EC, "igrave"); add(0x00ED, "iacute"); add(0x00EE, "icirc"); add(0x00EF, "iuml");
+        add(0x00F0, "eth"); add(0x00F1, "ntilde"); add(0x00F2, "ograve"); add(0x00F3, "oacute");
+        add(0x00F4, "ocirc"); add(0x00F5, "otilde"); add(0x00F6, "ouml"); add(0x00F7, "divide");
+        add(0x00F8, "oslash"); add(0x00F9, "ugrave"); add(0x00FA, "uacute"); add(0x00FB, "ucirc");
+        add(0x00FC, "uuml"); add(0x00FD, "yacute"); add(0x00FE, "thorn"); add(0x00FF, "yuml");
+        add(0x0192, "fnof"); add(0x0391, "Alpha"); add(0x0392, "Beta"); add(0x0393, "Gamma");
+        add(0x0394, "Delta"); add(0x0395, "Epsilon"); add(0x0396, "Zeta"); add(0x0397, "Eta");
+        add(0x0398, "Theta"); add(0x0399, "Iota"); add(0x039A, "Kappa"); add(0x039B, "Lambda");
+        add(0x039C, "Mu"); add(0x039D, "Nu"); add(0x039E, "Xi"); add(0x039F, "Omicron");
+        add(0x03A0, "Pi"); add(0x03A1, "Rho"); add(0x03A3, "Sigma"); add(0x03A4, "Tau");
+        add(0x03A5, "Upsilon"); add(0x03A6, "Phi"); add(0x03A7, "Chi"); add(0x03A8, "Psi");
+        add(0x03A9, "Omega"); add(0x03B1, "alpha"); add(0x03B2, "beta"); add(0x03B3, "gamma");
+        add(0x03B4, "delta"); add(0x03B5, "epsilon"); add(0x03B6, "zeta"); add(0x03B7, "eta");
+        add(0x03B8, "theta"); add(0x03B9, "iota"); add(0x03BA, "kappa"); add(0x03BB, "lambda");
+        add(0x03BC, "mu"); add(0x03BD, "nu"); add(0x03BE, "xi"); add(0x03BF, "omicron");
+        add(0x03C0, "pi"); add(0x03C1, "rho"); add(0x03C2, "sigmaf"); add(0x03C3, "sigma");
+        add(0x03C4, "tau"); add(0x03C5, "upsilon"); add(0x03C6, "phi"); add(0x03C7, "chi");
+        add(0x03C8, "psi"); add(0x03C9, "omega"); add(0x03D1, "thetasym"); add(0x03D2, "upsih");
+        add(0x03D6, "piv"); add(0x2022, "bull"); add(0x2026, "hellip"); add(0x2032, "prime");
+        add(0x2033, "Prime"); add(0x203E, "oline"); add(0x2044, "frasl"); add(0x2118, "weierp");
+        add(0x2111, "image"); add(0x211C, "real"); add(0x2122, "trade"); add(0x2135, "alefsym");
+        add(0x2190, "larr"); add(0x2191, "uarr"); add(0x2192, "rarr"); add(0x2193, "darr");
+        add(0x2194, "harr"); add(0x21B5, "crarr"); add(0x21D0, "lArr"); add(0x21D1, "uArr");
+        add(0x21D2, "rArr"); add(0x21D3, "dArr"); add(0x21D4, "hArr"); add(0x2200, "forall");
+        add(0x2202, "part"); add(0x2203, "exist"); add(0x2205, "empty"); add(0x2207, "nabla");
+        add(0x2208, "isin"); add(0x2209, "notin"); add(0x220B, "ni"); add(0x220F, "prod");
+        add(0x2211, "sum"); add(0x2212, "minus"); add(0x2217, "lowast"); add(0x221A, "radic");
+        add(0x221D, "prop"); add(0x221E, "infin"); add(0x2220, "ang"); add(0x2227, "and");
+        add(0x2228, "or"); add(0x2229, "cap"); add(0x222A, "cup"); add(0x222B, "int");
+        add(0x2234, "there4"); add(0x223C, "sim"); add(0x2245, "cong"); add(0x2248, "asymp");
+        add(0x2260, "ne"); add(0x2261, "equiv"); add(0x2264, "le"); add(0x2265, "ge");
+        add(0x2282, "sub"); add(0x2283, "sup"); add(0x2284, "nsub"); add(0x2286, "sube");
+        add(0x2287, "supe"); add(0x2295, "oplus"); add(0x2297, "otimes"); add(0x22A5, "perp");
+        add(0x22C5, "sdot"); add(0x2308, "lceil"); add(0x2309, "rceil"); add(0x230A, "lfloor");
+        add(0x230B, "rfloor"); add(0x2329, "lang"); add(0x232A, "rang"); add(0x25CA, "loz");
+        add(0x2660, "spades"); add(0x2663, "clubs"); add(0x2665, "hearts"); add(0x2666, "diams");
+        add(0x0152, "OElig"); add(0x0153, "oelig"); add(0x0160, "Scaron"); add(0x0161, "scaron");
+        add(0x0178, "Yuml"); add(0x02C6, "circ"); add(0x02DC, "tilde"); add(0x2002, "ensp");
+        add(0x2003, "emsp"); add(0x2009, "thinsp"); add(0x200C, "zwnj"); add(0x200D, "zwj");
+        add(0x200E, "lrm"); add(0x200F, "rlm"); add(0x2013, "ndash"); add(0x2014, "mdash");
+        add(0x2018, "lsquo"); add(0x2019, "rsquo"); add(0x201A, "sbquo"); add(0x201C, "ldquo");
+        add(0x201D, "rdquo"); add(0x201E, "bdquo"); add(0x2020, "dagger"); add(0x2021, "Dagger");
+        add(0x2030, "permil"); add(0x2039, "lsaquo"); add(0x203A, "rsaquo"); add(0x20AC, "euro");
+    }
+    
+    private HtmlEscaper() {
+    }
+    
+    private static void add(int c, String name) {
+        ESCAPES[c] = '&' + name + ';';
+        int slot = hash(name, 0, name.length());
+        while (NAMES[slot] != null) {
+            slot = (slot + 1) & HASH_MASK;
+        }
+        NAMES[slot] = name;
+        CHARS[slot] = (char) c;
+    }
+    
+    private static int hash(CharSequence cs, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + cs.charAt(i);
+        }
+        return (h ^ (h >>> 9)) & HASH_MASK;
+    }
+    
+    /**
+     * Returns the entity for a character, or null when it is written as is.
+     */
+    static String escapeFor(char c) {
+        return c <= MAX_ESCAPED_CHAR ? ESCAPES[c] : null;
+    }
+    
+    /**
+     * Escapes the characters in a string using HTML 4.0 entities.
+     * 
+     * @param str the string to escape, may be null
+     * @return the escaped string, or {@code str} itself when nothing needed escaping
+     */
+    public static String escape(String str) {
+        if (str == null) {
+            return null;
+        }
+        int n = str.length();
+        int first = 0;
+        while (first < n && escapeFor(str.charAt(first)) == null) {
+            first++;
+        }
+        if (first == n) {
+            return str;
+        }
+        StringBuilder builder = new StringBuilder(n + (n >> 3) + 8);
+        builder.append(str, 0, first);
+        escape(str, first, builder);
+        return builder.toString();
+    }
+    
+    /**
+     * Escapes the characters in a character sequence and appends the result to a builder.
+     * 
+     * @param cs the character sequence to escape
+     * @param out the builder to append to
+     */
+    public static void escape(CharSequence cs, StringBuilder out) {
+        escape(cs, 0, out);
+    }
+    
+    /**
+     * Escapes the characters in a character sequence and appends the result.
+     * 
+     * @param cs the character sequence to escape
+     * @param out the destination to append to
+     * @throws IOException if appending fails
+     */
+    public static void escape(CharSequence cs, Appendable out) throws IOException {
+        escapeRange(cs, 0, out);
+    }
+    
+    private static void escape(CharSequence cs, int from, StringBuilder out) {
+        try {
+            escapeRange(cs, from, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void escapeRange(CharSequence cs, int from, Appendable out) throws IOException {
+        int n = cs.length();
+        int run = from;
+        for (int i = from; i < n; i++) {
+            String replacement = escapeFor(cs.charAt(i));
+            if (replacement != null) {
+                out.append(cs, run, i).append(replacement);
+                run = i + 1;
+            }
+        }
+        out.append(cs, run, n);
+    }
+    
+    /**
+     * Unescapes a string containing HTML 4.0 named entities and numeric entities.
+     * Entities that are unknown or lack a terminating semicolon are left as they are.
+     * 
+     * @param str the string to unescape, may be null
+     * @return the unescaped string, or {@code str} itself when it contains no entity
+     */
+    public static String unescape(String str) {
+        if (str == null) {
+            return null;
+        }
+        int first = str.indexOf('&');
+        if (first < 0) {
+            return str;
+        }
+        StringBuilder builder = new StringBuilder(str.length());
+        builder.append(str, 0, first);
+        unescape(str, first, builder);
+        return builder.toString();
+    }
+    
+    /**
+     * Unescapes a character sequence and appends the result to a builder.
+     * 
+     * @param cs the character sequence to unescape
+     * @param out the builder to append to
+     */
+    public static void unescape(CharSequence cs, StringBuilder out) {
+        unescape(cs, 0, out);
+    }
+    
+    /**
+     * Unescapes a character sequence and appends the result.
+     * 
+     * @param cs the character sequence to unescape
+     * @param out the destination to append to
+     * @throws IOException if appending fails
+     */
+    public static void unescape(CharSequence cs, Appendable out) throws IOException {
+        unescapeRange(cs, 0, out);
+    }
+    
+    private static void unescape(CharSequence cs, int from, StringBuilder out) {
+        try {
+            unescapeRange(cs, from, out);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void unescapeRange(CharSequence cs, int from, Appendable out) throws IOException {
+        int n = cs.length();
+        int run = from;
+        int i = from;
+        while (i < n) {
+            if (cs.charAt(i) != '&') {
+                i++;
+                continue;
+            }
+            int consumed = unescapeNamed(cs, i, out, run);
+            if (consumed == 0) {
+                consumed = unescapeNumeric(cs, i, out, run);
+            }
+            if (consumed == 0) {
+                i++;
+            } else {
+                i += consumed;
+                run = i;
+            }
+        }
+        out.append(cs, run, n);
+    }
+    
+    /**
+     * Translates a named entity starting at {@code index}, flushing the pending run first.
+     * 
+     * @return the number of characters consumed, or 0 if there is no known entity here
+     */
+    private static int unescapeNamed(CharSequence cs, int index, Appendable out, int run) throws IOException {
+        int nameStart = index + 1;
+        int limit = Math.min(cs.length(), nameStart + MAX_NAME_LENGTH + 1);
+        int semicolon = nameStart;
+        while (semicolon < limit && cs.charAt(semicolon) != ';') {
+            semicolon++;
+        }
+        if (semicolon == limit || semicolon == nameStart) {
+            return 0;
+        }
+        int length = semicolon - nameStart;
+        for (int slot = hash(cs, nameStart, semicolon); NAMES[slot] != null; slot = (slot + 1) & HASH_MASK) {
+            String name = NAMES[slot];
+            if (name.length() == length && regionMatches(cs, nameStart, name)) {
+                out.append(cs, run, index).append(CHARS[slot]);
+                return length + 2;
+            }
+        }
+        return 0;
+    }
+    
+    private static boolean regionMatches(CharSequence cs, int offset, String name) {
+        for (int k = 0; k < name.length(); k++) {
+            if (cs.charAt(offset + k) != name.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Translates a numeric entity ({@code &#65;} or {@code &#x41;}) starting at {@code index},
+     * flushing the pending run first.
+     * 
+     * @return the number of characters consumed, or 0 if there is no valid numeric entity here
+     */
+    private static int unescapeNumeric(CharSequence cs, int index, Appendable out, int run) throws IOException {
+        int n = cs.length();
+        if (index >= n - 2 || cs.charAt(index + 1) != '#') {
+            return 0;
+        }
+        int start = index + 2;
+        boolean hex = false;
+        char firstChar = cs.charAt(start);
+        if (firstChar == 'x' || firstChar == 'X') {
+            start++;
+            hex = true;
+            if (start == n) {
+                return 0;
+            }
+        }
+        int radix = hex ? 16 : 10;
+        long value = 0;
+        boolean valid = true;
+        int end = start;
+        // Hex digits are consumed for decimal entities too, which then fail to parse.
+        for (; end < n; end++) {
+            int digit = hexDigit(cs.charAt(end));
+            if (digit < 0) {
+                break;
+            }
+            if (digit >= radix) {
+                valid = false;
+            } else if (valid) {
+                value = value * radix + digit;
+                valid = value <= Integer.MAX_VALUE;
+            }
+        }
+        if (end == n || cs.charAt(end) != ';' || end == start || !valid) {
+            return 0;
+        }
+        out.append(cs, run, index);
+        if (value > 0xFFFF) {
+            char[] chars = Character.toChars((int) value);
+            out.append(chars[0]).append(chars[1]);
+        } else {
+            out.append((char) value);
+        }
+        return end - index + 1;
+    }
+    
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared Jackson configuration for all modules.
+ * 
+ * <p>Building an {@link ObjectMapper} and warming its serializer and deserializer caches is
+ * expensive, so one mapper is created per JVM and every component reads and writes through it.
+ * Readers and writers are immutable and cached per type; the types used on the hot paths are
+ * resolved when this class is initialized.
+ * 
+ * <p>Setting the system property {@value #MODULE_PROPERTY} to {@code blackbird} or
+ * {@code afterburner} registers the corresponding Jackson bytecode-generation module, provided
+ * it is on the classpath. Both are optional dependencies.
+ * 
+ * <p>The binary {@link DataFormat formats} have mappers of their own, configured the same way
+ * and created on first use. So do the readers that canonicalize strings through a
+ * {@link StringCanonicalizer}, which keeps the string deserializer of the shared mappers standard.
+ */
+public final class JsonCodecs {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JsonCodecs.class);
+    
+    /** System property naming an optional performance module to register. */
+    public static final String MODULE_PROPERTY = "com.example.json.module";
+    
+    private static final Map<String, String> MODULES = Map.of(
+            "blackbird", "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+            "afterburner", "com.fasterxml.jackson.module.afterburner.AfterburnerModule");
+    
+    private static final Codecs JSON_CODECS = new Codecs(new ObjectMapper());
+    private static final ConcurrentMap<DataFormat, Codecs> BINARY = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<DataFormat, Codecs> CANONICALIZING = new ConcurrentHashMap<>();
+    
+    static {
+        warmUp(Map.class, ProcessedRecord.class);
+    }
+    
+    private JsonCodecs() {
+    }
+    
+    private static void registerConfiguredModule(ObjectMapper mapper) {
+        String moduleName = System.getProperty(MODULE_PROPERTY);
+        if (moduleName != null && !moduleName.isEmpty()) {
+            String className = MODULES.get(moduleName);
+            if (className == null) {
+                logger.warn("Unknown Jackson module '{}', expected one of {}", moduleName, MODULES.keySet());
+            } else {
+                try {
+                    mapper.registerModule((Module) Class.forName(className).getDeclaredConstructor().newInstance());
+                    logger.info("Registered Jackson module {}", className);
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    logger.warn("Jackson module {} is not available, continuing without it", className, e);
+                }
+            }
+        }
+    }
+    
+    private static Codecs codecs(DataFormat format) {
+        return format == DataFormat.JSON ? JSON_CODECS : BINARY.computeIfAbsent(format, f -> new Codecs(newMapper(f)));
+    }
+    
+    private static ObjectMapper newMapper(DataFormat format) {
+        switch (format) {
+            case JSON:
+                return new ObjectMapper();
+            case SMILE:
+                return new SmileMapper();
+            case CBOR:
+                return new CBORMapper();
+            default:
+                throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+    }
+    
+    /**
+     * Returns the shared mapper, for streaming through its {@link ObjectMapper#getFactory() factory}.
+     * The mapper is shared by every component and must not be reconfigured.
+     * 
+     * @return the shared mapper
+     */
+    public static ObjectMapper mapper() {
+        return JSON_CODECS.mapper;
+    }
+    
+    /**
+     * Returns the shared mapper for a wire format. The mapper must not be reconfigured.
+     * 
+     * @param format the wire format
+     * @return the shared mapper
+     */
+    public static ObjectMapper mapper(DataFormat format) {
+        return codecs(format).mapper;
+    }
+    
+    /**
+     * Returns the cached reader for a type.
+     * 
+     * @param type the type to read
+     * @return the reader
+     */
+    public static ObjectReader reader(Class<?> type) {
+        return JSON_CODECS.reader(type);
+    }
+    
+    /**
+     * Returns the cached reader for a type in a wire format.
+     * 
+     * @param format the wire format
+     * @param type the type to read
+     * @return the reader
+     */
+    public static ObjectReader reader(DataFormat format, Class<?> type) {
+        return codecs(format).reader(type);
+    }
+    
+    /**
+     * Returns a reader for a type that canonicalizes the strings it reads through the given table.
+     * 
+     * @param type the type to read
+     * @param canonicalizer the table to canonicalize strings through
+     * @return the reader
+     */
+    public static ObjectReader reader(Class<?> type, StringCanonicalizer canonicalizer) {
+        return reader(DataFormat.JSON, type, canonicalizer);
+    }
+    
+    /**
+     * Returns a reader for a type in a wire format that canonicalizes the strings it reads through
+     * the given table. Each call binds a new reader, so callers should keep the result.
+     * 
+     * @param format the wire format
+     * @param type the type to read
+     * @param canonicalizer the table to canonicalize strings through
+     * @return the reader
+     */
+    public static ObjectReader reader(DataFormat format, Class<?> type, StringCanonicalizer canonicalizer) {
+        Codecs codecs = CANONICALIZING.computeIfAbsent(format,
+                f -> new Codecs(newMapper(f).registerModule(StringCanonicalizer.module())));
+        return codecs.reader(type).withAttribute(StringCanonicalizer.class, canonicalizer);
+    }
+    
+    /**
+     * Returns the cached writer for a type.
+     * 
+     * @param type the type to write
+     * @return the writer
+     */
+    public static ObjectWriter writer(Class<?> type) {
+        return JSON_CODECS.writer(type);
+    }
+    
+    /**
+     * Returns the cached writer for a type in a wire format.
+     * 
+     * @param format the wire format
+     * @param type the type to write
+     * @return the writer
+     */
+    public static ObjectWriter writer(DataFormat format, Class<?> type) {
+        return codecs(format).writer(type);
+    }
+    
+    /**
+     * Resolves the readers and writers for the given types ahead of their first use,
+     * so that the first request does not pay for serializer and deserializer construction.
+     * 
+     * @param types the types to prepare
+     */
+    public static void warmUp(Class<?>... types) {
+        for (Class<?> type : types) {
+            reader(type);
+            writer(type);
+        }
+    }
+    
+    /**
+     * A mapper together with the readers and writers derived from it.
+     */
+    private static final class Codecs {
+        
+        final ObjectMapper mapper;
+        private final ConcurrentMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+        
+        Codecs(ObjectMapper mapper) {
+            registerConfiguredModule(mapper);
+            this.mapper = mapper;
+        }
+        
+        ObjectReader reader(Class<?> type) {
+            return readers.computeIfAbsent(type, mapper::readerFor);
+        }
+        
+        ObjectWriter writer(Class<?> type) {
+            return writers.computeIfAbsent(type, mapper::writerFor);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the records of a batch, binding one record at a time.
+ * Accepts either a top-level JSON array or a sequence of root-level values such as NDJSON.
+ * I/O and parse errors are rethrown as {@link UncheckedIOException}.
+ *
+ * @param <T> the record type
+ */
+final class JsonRecordIterator<T> implements Iterator<T> {
+    
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private boolean started;
+    private boolean inArray;
+    private boolean ready;
+    private boolean done;
+    
+    JsonRecordIterator(JsonParser parser, ObjectReader reader) {
+        this.parser = parser;
+        this.reader = reader;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (!ready && !done) {
+            try {
+                advance();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return ready;
+    }
+    
+    private void advance() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token == JsonToken.START_ARRAY) {
+                inArray = true;
+                token = parser.nextToken();
+            }
+        }
+        if (inArray && token == null) {
+            throw new JsonParseException(parser, "Unexpected end of input inside JSON array");
+        }
+        if (token == null || inArray && token == JsonToken.END_ARRAY) {
+            done = true;
+        } else {
+            ready = true;
+        }
+    }
+    
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        try {
+            return reader.readValue(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
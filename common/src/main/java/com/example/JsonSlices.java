@@ -0,0 +1,33 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+/**
+ * Locates the source text of values skipped by a {@link JsonParser} reading a {@code String}.
+ */
+final class JsonSlices {
+    
+    private JsonSlices() {
+    }
+    
+    /**
+     * Returns the end of a value that starts at {@code start} and was skipped, given a parser
+     * positioned on the token that follows it: the value ends before that token's separator
+     * and any surrounding whitespace.
+     */
+    static int endOfValue(String json, int start, JsonParser parser) {
+        int end = (int) parser.currentTokenLocation().getCharOffset();
+        end = trimWhitespace(json, start, end);
+        if (end > start && json.charAt(end - 1) == ',') {
+            end = trimWhitespace(json, start, end - 1);
+        }
+        return end;
+    }
+    
+    private static int trimWhitespace(String json, int start, int end) {
+        while (end > start && json.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
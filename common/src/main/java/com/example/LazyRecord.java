@@ -0,0 +1,265 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-only view of a JSON record that deserializes fields only when they are read.
+ *
+ * <p>{@link DataProcessor#parseLazy(String)} scans the top level of the document once,
+ * recording where each field's value starts and ends. Objects and arrays are skipped with
+ * {@link JsonParser#skipChildren()} and strings are skipped without being decoded, so the scan
+ * costs far less than building a {@code Map}. Each field is deserialized from its slice of the
+ * source on first access and then cached, making the total cost proportional to the fields read.
+ *
+ * <p>Instances are not thread-safe.
+ */
+public final class LazyRecord {
+    
+    /** Location of a field's value in the source, and the value once materialized. */
+    private static final class Slot {
+        
+        final int start;
+        final int end;
+        Object value;
+        boolean materialized;
+        
+        Slot(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+    
+    /** Marks a value that {@link #readSimple(Slot)} leaves to Jackson. */
+    private static final Object NOT_SIMPLE = new Object();
+    
+    /** Longest integer, including sign, decoded without a parser; 18 digits always fit in a long. */
+    private static final int MAX_SIMPLE_DIGITS = 18;
+    
+    private final String source;
+    private final Map<String, Slot> fields;
+    private final StringCanonicalizer canonicalizer;
+    private final Function<Class<?>, ObjectReader> readers;
+    
+    private LazyRecord(String source, Map<String, Slot> fields, StringCanonicalizer canonicalizer,
+                       Function<Class<?>, ObjectReader> readers) {
+        this.source = source;
+        this.fields = fields;
+        this.canonicalizer = canonicalizer;
+        this.readers = readers;
+    }
+    
+    /**
+     * Indexes the top-level fields of a JSON object. Strings decoded directly from the source go
+     * through the canonicalizer, if any; everything else is read with the readers returned by
+     * {@code readers}.
+     */
+    static LazyRecord index(JsonFactory factory, String json, StringCanonicalizer canonicalizer,
+                            Function<Class<?>, ObjectReader> readers) throws IOException {
+        Map<String, Slot> fields = new LinkedHashMap<>();
+        try (JsonParser parser = factory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a JSON object, found " + parser.currentToken());
+            }
+            String pendingField = null;
+            int pendingStart = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (pendingField != null) {
+                    int end = JsonSlices.endOfValue(json, pendingStart, parser);
+                    fields.put(pendingField, new Slot(pendingStart, end));
+                }
+                pendingField = parser.currentName();
+                parser.nextToken();
+                pendingStart = (int) parser.currentTokenLocation().getCharOffset();
+                parser.skipChildren();
+            }
+            if (pendingField != null) {
+                int end = JsonSlices.endOfValue(json, pendingStart, parser);
+                fields.put(pendingField, new Slot(pendingStart, end));
+            }
+            if (parser.nextToken() != null) {
+                throw new JsonParseException(parser, "Unexpected content after the JSON object: " + parser.currentToken());
+            }
+        }
+        return new LazyRecord(json, fields, canonicalizer, readers);
+    }
+    
+    /**
+     * Returns the {@code name} field.
+     *
+     * @return the name, or null if absent
+     */
+    public String name() {
+        Object name = get("name");
+        return name == null ? null : name.toString();
+    }
+    
+    /**
+     * Returns the {@code timestamp} field.
+     *
+     * @return the timestamp in epoch milliseconds, or 0 if absent
+     */
+    public long timestamp() {
+        Object timestamp = get("timestamp");
+        return timestamp instanceof Number ? ((Number) timestamp).longValue() : 0L;
+    }
+    
+    /**
+     * Returns the {@code value} field, deserialized as a plain JSON value.
+     *
+     * @return the value, or null if absent
+     */
+    public Object value() {
+        return get("value");
+    }
+    
+    /**
+     * Returns a top-level field deserialized as a plain JSON value, as {@link DataProcessor#parseData(String)} would.
+     *
+     * @param field the field name
+     * @return the value, or null if the field is absent or null
+     */
+    public Object get(String field) {
+        Slot slot = fields.get(field);
+        if (slot == null) {
+            return null;
+        }
+        if (!slot.materialized) {
+            slot.value = readSimple(slot);
+            if (slot.value == NOT_SIMPLE) {
+                slot.value = read(slot, Object.class);
+            }
+            slot.materialized = true;
+        }
+        return slot.value;
+    }
+    
+    /**
+     * Returns a top-level field bound to the given type. The result is not cached.
+     *
+     * @param field the field name
+     * @param type the type to bind to
+     * @param <T> the result type
+     * @return the value, or null if the field is absent or null
+     */
+    public <T> T get(String field, Class<T> type) {
+        Slot slot = fields.get(field);
+        return slot == null ? null : read(slot, type);
+    }
+    
+    /**
+     * Returns the JSON text of a top-level field's value exactly as it appears in the source.
+     *
+     * @param field the field name
+     * @return the JSON text, or null if the field is absent
+     */
+    public String rawValue(String field) {
+        Slot slot = fields.get(field);
+        return slot == null ? null : source.substring(slot.start, slot.end);
+    }
+    
+    /**
+     * Returns whether the record has a top-level field.
+     *
+     * @param field the field name
+     * @return true if the field is present
+     */
+    public boolean has(String field) {
+        return fields.containsKey(field);
+    }
+    
+    /**
+     * Returns the top-level field names in document order.
+     *
+     * @return the field names
+     */
+    public Set<String> fieldNames() {
+        return Collections.unmodifiableSet(fields.keySet());
+    }
+    
+    /**
+     * Materializes every field.
+     *
+     * @return the record as a map, equal to the result of {@link DataProcessor#parseData(String)}
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String field : fields.keySet()) {
+            map.put(field, get(field));
+        }
+        return map;
+    }
+    
+    /**
+     * Decodes unescaped strings, small integers and literals directly from the source,
+     * avoiding a parser for the fields most often read. Returns {@link #NOT_SIMPLE} otherwise.
+     */
+    private Object readSimple(Slot slot) {
+        int start = slot.start;
+        int end = slot.end;
+        char first = source.charAt(start);
+        if (first == '"') {
+            for (int i = start + 1; i < end - 1; i++) {
+                if (source.charAt(i) == '\\') {
+                    return NOT_SIMPLE;
+                }
+            }
+            String value = source.substring(start + 1, end - 1);
+            return canonicalizer == null ? value : canonicalizer.canonicalize(value);
+        }
+        if (end - start <= MAX_SIMPLE_DIGITS && (first == '-' || first >= '0' && first <= '9')) {
+            long value = 0;
+            for (int i = first == '-' ? start + 1 : start; i < end; i++) {
+                char c = source.charAt(i);
+                if (c < '0' || c > '9') {
+                    return NOT_SIMPLE;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (first == '-') {
+                value = -value;
+            }
+            if (value == (int) value) {
+                return (int) value;
+            }
+            return value;
+        }
+        if (isLiteral(start, end, "true")) {
+            return Boolean.TRUE;
+        }
+        if (isLiteral(start, end, "false")) {
+            return Boolean.FALSE;
+        }
+        if (isLiteral(start, end, "null")) {
+            return null;
+        }
+        return NOT_SIMPLE;
+    }
+    
+    private boolean isLiteral(int start, int end, String literal) {
+        return end - start == literal.length() && source.startsWith(literal, start);
+    }
+    
+    private <T> T read(Slot slot, Class<T> type) {
+        try {
+            return readers.apply(type).readValue(source.substring(slot.start, slot.end));
+        } catch (IOException e) {
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "LazyRecord" + fields.keySet();
+    }
+}
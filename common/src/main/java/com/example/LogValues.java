@@ -0,0 +1,80 @@
+package com.example;
+
+/**
+ * Helpers for passing payload values to log statements.
+ *
+ * <p>Request payloads can be arbitrarily large, and rendering them in full on every call costs
+ * both formatting time and appender I/O. {@link #truncate(Object)} returns a value whose
+ * {@code toString()} is evaluated only when the event is actually formatted and is cut to a
+ * bounded length. Callers should still guard the statement with a level check so the wrapper is
+ * not allocated when the level is disabled.
+ */
+public final class LogValues {
+
+    /** Default number of characters kept from a logged value. */
+    public static final int DEFAULT_MAX_LENGTH = 256;
+
+    private LogValues() {
+    }
+
+    /**
+     * Returns a log argument that renders at most {@value #DEFAULT_MAX_LENGTH} characters of the value.
+     *
+     * @param value the value to log, may be null
+     * @return a log argument for the value
+     */
+    public static Object truncate(Object value) {
+        return truncate(value, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * Returns a log argument that renders at most {@code maxLength} characters of the value.
+     * Short character sequences are returned as is; anything else is wrapped so that its
+     * string form is only computed when the log event is formatted.
+     *
+     * @param value the value to log, may be null
+     * @param maxLength the maximum number of characters to render
+     * @return a log argument for the value
+     */
+    public static Object truncate(Object value, int maxLength) {
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative: " + maxLength);
+        }
+        if (value == null || value instanceof CharSequence cs && cs.length() <= maxLength) {
+            return value;
+        }
+        return new Truncated(value, maxLength);
+    }
+
+    /**
+     * Renders the string form of a value cut to {@code maxLength} characters, followed by the
+     * original length when anything was dropped.
+     */
+    static String render(Object value, int maxLength) {
+        String str = String.valueOf(value);
+        if (str.length() <= maxLength) {
+            return str;
+        }
+        int end = maxLength;
+        if (end > 0 && Character.isHighSurrogate(str.charAt(end - 1))) {
+            end--;
+        }
+        return str.substring(0, end) + "...(" + str.length() + " chars)";
+    }
+
+    private static final class Truncated {
+
+        private final Object value;
+        private final int maxLength;
+
+        Truncated(Object value, int maxLength) {
+            this.value = value;
+            this.maxLength = maxLength;
+        }
+
+        @Override
+        public String toString() {
+            return render(value, maxLength);
+        }
+    }
+}
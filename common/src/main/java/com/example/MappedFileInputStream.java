@@ -0,0 +1,84 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream over a memory-mapped file.
+ * 
+ * <p>The file is mapped read-only in fixed-size windows, one at a time, so files larger than
+ * 2 GB are supported and the Java heap never holds more than the reader's own buffer. Pages are
+ * loaded by the operating system on demand and can be dropped again under memory pressure.
+ */
+final class MappedFileInputStream extends InputStream {
+    
+    /** Size of each mapped window. */
+    static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    
+    private final FileChannel channel;
+    private final long size;
+    private final long windowSize;
+    private long windowStart;
+    private MappedByteBuffer window;
+    
+    MappedFileInputStream(Path path) throws IOException {
+        this(path, WINDOW_SIZE);
+    }
+    
+    MappedFileInputStream(Path path, long windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowSize = windowSize;
+    }
+    
+    /**
+     * Makes sure the current window has bytes left.
+     * 
+     * @return false at end of file
+     */
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        long next = window == null ? 0 : windowStart + window.capacity();
+        if (next >= size) {
+            return false;
+        }
+        windowStart = next;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, next, Math.min(windowSize, size - next));
+        return true;
+    }
+    
+    @Override
+    public int read() throws IOException {
+        return ensureWindow() ? window.get() & 0xFF : -1;
+    }
+    
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int n = Math.min(len, window.remaining());
+        window.get(b, off, n);
+        return n;
+    }
+    
+    @Override
+    public int available() {
+        return window == null ? 0 : window.remaining();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
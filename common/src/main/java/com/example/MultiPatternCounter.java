@@ -0,0 +1,194 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Counts the occurrences of many patterns in a single pass over the text (Aho-Corasick).
+ * 
+ * <p>The patterns are compiled into a deterministic automaton whose transition table is
+ * indexed by character class, so scanning costs one table lookup per character regardless
+ * of how many patterns there are. Counts follow {@link StringUtils#countOccurrences(String, String)}:
+ * matches of the same pattern do not overlap, matches of different patterns may, and blank
+ * patterns or blank text count as zero. Instances are immutable and thread-safe.
+ */
+public final class MultiPatternCounter {
+    
+    private final String[] patterns;
+    
+    /** Character class for ASCII characters; 0 means the character appears in no pattern. */
+    private final int[] asciiClasses = new int[128];
+    
+    /** Sorted non-ASCII pattern characters and their classes. */
+    private final char[] otherChars;
+    private final int[] otherClasses;
+    
+    private final int alphabetSize;
+    
+    /** Next state, indexed by {@code state * alphabetSize + characterClass}. */
+    private final int[] transitions;
+    
+    /** Patterns that end in each state, including those reached through failure links. */
+    private final int[][] outputs;
+    
+    /**
+     * Compiles the given patterns.
+     * 
+     * @param patterns the patterns to count; the result of {@link #count(CharSequence)} uses the same order
+     */
+    public MultiPatternCounter(List<String> patterns) {
+        this.patterns = patterns.toArray(new String[0]);
+        
+        TreeSet<Character> others = new TreeSet<>();
+        int nextClass = 1;
+        for (String pattern : this.patterns) {
+            if (StringUtils.isBlank(pattern)) {
+                continue;
+            }
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < 128) {
+                    if (asciiClasses[c] == 0) {
+                        asciiClasses[c] = nextClass++;
+                    }
+                } else {
+                    others.add(c);
+                }
+            }
+        }
+        otherChars = new char[others.size()];
+        otherClasses = new int[others.size()];
+        int k = 0;
+        for (char c : others) {
+            otherChars[k] = c;
+            otherClasses[k++] = nextClass++;
+        }
+        alphabetSize = nextClass;
+        
+        // Build the trie; -1 marks a missing edge.
+        List<int[]> trie = new ArrayList<>();
+        List<int[]> terminal = new ArrayList<>();
+        trie.add(newState());
+        terminal.add(new int[0]);
+        for (int p = 0; p < this.patterns.length; p++) {
+            String pattern = this.patterns[p];
+            if (StringUtils.isBlank(pattern)) {
+                continue;
+            }
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int cls = classOf(pattern.charAt(i));
+                if (trie.get(state)[cls] < 0) {
+                    trie.get(state)[cls] = trie.size();
+                    trie.add(newState());
+                    terminal.add(new int[0]);
+                }
+                state = trie.get(state)[cls];
+            }
+            terminal.set(state, append(terminal.get(state), p));
+        }
+        
+        // Breadth-first pass turning the trie into a complete automaton.
+        int stateCount = trie.size();
+        transitions = new int[stateCount * alphabetSize];
+        outputs = new int[stateCount][];
+        int[] fail = new int[stateCount];
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        outputs[0] = terminal.get(0);
+        for (int cls = 0; cls < alphabetSize; cls++) {
+            int next = trie.get(0)[cls];
+            if (next < 0) {
+                transitions[cls] = 0;
+            } else {
+                transitions[cls] = next;
+                fail[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            outputs[state] = concat(terminal.get(state), outputs[fail[state]]);
+            for (int cls = 0; cls < alphabetSize; cls++) {
+                int next = trie.get(state)[cls];
+                int fallback = transitions[fail[state] * alphabetSize + cls];
+                if (next < 0) {
+                    transitions[state * alphabetSize + cls] = fallback;
+                } else {
+                    transitions[state * alphabetSize + cls] = next;
+                    fail[next] = fallback;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+    
+    private int[] newState() {
+        int[] edges = new int[alphabetSize];
+        Arrays.fill(edges, -1);
+        return edges;
+    }
+    
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+    
+    private static int[] concat(int[] first, int[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+    
+    private int classOf(char c) {
+        if (c < 128) {
+            return asciiClasses[c];
+        }
+        int index = Arrays.binarySearch(otherChars, c);
+        return index < 0 ? 0 : otherClasses[index];
+    }
+    
+    /**
+     * Counts every pattern in the text in one pass.
+     * 
+     * @param text the text to search in
+     * @return the number of non-overlapping occurrences of each pattern, in pattern order
+     */
+    public int[] count(CharSequence text) {
+        int[] counts = new int[patterns.length];
+        if (StringUtils.isBlank(text)) {
+            return counts;
+        }
+        // Index just past the last counted match of each pattern.
+        int[] nextAllowed = new int[patterns.length];
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = transitions[state * alphabetSize + classOf(text.charAt(i))];
+            for (int p : outputs[state]) {
+                int start = i + 1 - patterns[p].length();
+                if (start >= nextAllowed[p]) {
+                    counts[p]++;
+                    nextAllowed[p] = i + 1;
+                }
+            }
+        }
+        return counts;
+    }
+    
+    /**
+     * Returns the patterns this counter was compiled from.
+     * 
+     * @return the patterns, in count order
+     */
+    public List<String> getPatterns() {
+        return Collections.unmodifiableList(Arrays.asList(patterns.clone()));
+    }
+}
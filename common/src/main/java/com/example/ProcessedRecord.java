@@ -0,0 +1,11 @@
+package com.example;
+
+/**
+ * Typed form of the JSON produced by {@link DataProcessor#processData(String, Object)}.
+ *
+ * @param name the record name
+ * @param value the record value, deserialized as a plain JSON value
+ * @param timestamp the creation time in epoch milliseconds
+ */
+public record ProcessedRecord(String name, Object value, long timestamp) {
+}
@@ -0,0 +1,201 @@
+package com.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Generator of random alphanumeric strings ({@code [0-9A-Za-z]}).
+ *
+ * <p>Characters are produced in blocks: every random {@code long} is split into ten 6-bit
+ * indexes into a 64-entry table. The two indexes past the 62 alphanumeric characters are
+ * rejected, which keeps the distribution uniform. Each {@code long} contributes 60 of its 64 bits
+ * and 62 in 64 indexes are accepted, so about 91% of the random bits end up in the output.
+ *
+ * <p>The {@link #alphanumeric() default} generator draws from {@link ThreadLocalRandom}, so
+ * threads never contend on a shared seed. The {@link #secureAlphanumeric() secure} generator
+ * draws from a per-thread {@link SecureRandom} through a buffer of entropy that is refilled
+ * in bulk, for identifiers that must not be predictable.
+ */
+public final class RandomStrings {
+    
+    private static final byte[] ALPHABET =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+    
+    private static final int BITS_PER_CHAR = 6;
+    private static final int CHARS_PER_LONG = Long.SIZE / BITS_PER_CHAR;
+    private static final int INDEX_MASK = (1 << BITS_PER_CHAR) - 1;
+    
+    private static final RandomStrings FAST = new RandomStrings(false);
+    private static final RandomStrings SECURE = new RandomStrings(true);
+    
+    private static final ThreadLocal<BufferedSecureRandom> SECURE_SOURCES =
+            ThreadLocal.withInitial(BufferedSecureRandom::new);
+    
+    private final boolean secure;
+    
+    private RandomStrings(boolean secure) {
+        this.secure = secure;
+    }
+    
+    /**
+     * Returns the generator backed by {@link ThreadLocalRandom}.
+     *
+     * @return the fast generator
+     */
+    public static RandomStrings alphanumeric() {
+        return FAST;
+    }
+    
+    /**
+     * Returns the generator backed by per-thread, buffered {@link SecureRandom} instances.
+     *
+     * @return the secure generator
+     */
+    public static RandomStrings secureAlphanumeric() {
+        return SECURE;
+    }
+    
+    /**
+     * Generates a random string.
+     *
+     * @param length the length of the string
+     * @return the random string
+     * @throws IllegalArgumentException if length is negative
+     */
+    public String next(int length) {
+        checkLength(length);
+        if (length == 0) {
+            return "";
+        }
+        byte[] bytes = new byte[length];
+        fill(source(), bytes, 0, length);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+    
+    /**
+     * Generates several random strings of the same length from one block of random characters.
+     *
+     * @param count the number of strings
+     * @param length the length of each string
+     * @return the random strings
+     * @throws IllegalArgumentException if count or length is negative
+     */
+    public List<String> next(int count, int length) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Requested random string count " + count + " is less than 0.");
+        }
+        checkLength(length);
+        List<String> strings = new ArrayList<>(count);
+        if (length == 0) {
+            for (int i = 0; i < count; i++) {
+                strings.add("");
+            }
+            return strings;
+        }
+        // Generate in chunks so the scratch array stays small for large counts.
+        int perChunk = Math.max(1, 8192 / length);
+        byte[] chunk = new byte[Math.min(count, perChunk) * length];
+        RandomGenerator source = source();
+        for (int done = 0; done < count; ) {
+            int n = Math.min(count - done, perChunk);
+            fill(source, chunk, 0, n * length);
+            for (int i = 0; i < n; i++) {
+                strings.add(new String(chunk, i * length, length, StandardCharsets.ISO_8859_1));
+            }
+            done += n;
+        }
+        return strings;
+    }
+    
+    /**
+     * Fills a range of a byte array with random ASCII alphanumeric characters.
+     *
+     * @param dst the array to fill
+     * @param off the first index to fill
+     * @param len the number of characters
+     */
+    public void nextBytes(byte[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        fill(source(), dst, off, len);
+    }
+    
+    /**
+     * Fills a range of a char array with random alphanumeric characters.
+     *
+     * @param dst the array to fill
+     * @param off the first index to fill
+     * @param len the number of characters
+     */
+    public void nextChars(char[] dst, int off, int len) {
+        Objects.checkFromIndexSize(off, len, dst.length);
+        RandomGenerator source = source();
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            long bits = source.nextLong();
+            for (int k = 0; k < CHARS_PER_LONG && i < end; k++, bits >>>= BITS_PER_CHAR) {
+                int index = (int) bits & INDEX_MASK;
+                if (index < ALPHABET.length) {
+                    dst[i++] = (char) ALPHABET[index];
+                }
+            }
+        }
+    }
+    
+    private RandomGenerator source() {
+        return secure ? SECURE_SOURCES.get() : ThreadLocalRandom.current();
+    }
+    
+    private static void fill(RandomGenerator source, byte[] dst, int off, int len) {
+        int end = off + len;
+        int i = off;
+        while (i < end) {
+            long bits = source.nextLong();
+            for (int k = 0; k < CHARS_PER_LONG && i < end; k++, bits >>>= BITS_PER_CHAR) {
+                int index = (int) bits & INDEX_MASK;
+                if (index < ALPHABET.length) {
+                    dst[i++] = ALPHABET[index];
+                }
+            }
+        }
+    }
+    
+    private static void checkLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Requested random string length " + length + " is less than 0.");
+        }
+    }
+    
+    /**
+     * Serves random longs from a block of {@link SecureRandom} output, so that the
+     * underlying generator is called once per 64 longs rather than once per long.
+     */
+    private static final class BufferedSecureRandom implements RandomGenerator {
+        
+        private static final VarHandle LONGS =
+                MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+        
+        private final SecureRandom random = new SecureRandom();
+        private final byte[] buffer = new byte[512];
+        private int position = buffer.length;
+        
+        @Override
+        public long nextLong() {
+            if (position == buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            long value = (long) LONGS.get(buffer, position);
+            position += Long.BYTES;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the trimmed, non-blank tokens read from a {@link Reader}, using the
+ * splitting rules of {@link StringUtils#splitAndTrim(String, String)}.
+ * 
+ * <p>Input is read through a fixed-size buffer, so memory use is bounded by the buffer
+ * plus the longest single token, however large the input is.
+ */
+final class ReaderTokenIterator implements Iterator<String> {
+    
+    private static final int BUFFER_SIZE = 8192;
+    
+    private final Reader reader;
+    private final String delimiter;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder token = new StringBuilder();
+    private int position;
+    private int limit;
+    private boolean eof;
+    private String next;
+    
+    ReaderTokenIterator(Reader reader, String delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        if (next == null && !eof) {
+            try {
+                next = readToken();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+    
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String result = next;
+        next = null;
+        return result;
+    }
+    
+    /**
+     * Reads up to the next non-blank token, or returns null once the input is exhausted.
+     */
+    private String readToken() throws IOException {
+        while (true) {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    eof = true;
+                    return takeToken();
+                }
+            }
+            int runStart = position;
+            while (position < limit && !StringUtils.isDelimiter(buffer[position], delimiter)) {
+                position++;
+            }
+            token.append(buffer, runStart, position - runStart);
+            if (position < limit) {
+                position++;
+                String result = takeToken();
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Trims the collected characters and clears them.
+     * 
+     * @return the token, or null if it was blank
+     */
+    private String takeToken() {
+        int start = 0;
+        int end = token.length();
+        while (start < end && token.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && token.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        String result = start < end ? token.substring(start, end) : null;
+        token.setLength(0);
+        return StringUtils.isBlank(result) ? null : result;
+    }
+}
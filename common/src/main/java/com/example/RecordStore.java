@@ -0,0 +1,666 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only, column-oriented store of processed records, kept outside the Java heap.
+ *
+ * <p>Records are appended to a segment of three direct buffers: a timestamp column of
+ * {@code long}s, a name column of {@code int} ids into a dictionary of distinct names, and a
+ * blob of length-prefixed values encoded as JSON. A full segment is sealed: its columns are
+ * copied into buffers of exactly the used size, or, when the store was created with a spill
+ * directory, written to a file that is then memory-mapped read-only, so sealed data lives in
+ * the page cache rather than in memory the JVM has to account for. The active segment's
+ * buffers are reused for the next segment.
+ *
+ * <p>The heap holds only the name dictionary and a small object per segment, so the heap cost
+ * does not grow with the number of records. Scans and aggregations read the columns with
+ * absolute primitive accessors and never box; each segment records its timestamp range, so
+ * segments outside a queried range are skipped without being read.
+ *
+ * <p>Spill files use the platform's byte order and are deleted by {@link #close()}; they are
+ * not meant to be read by another process. Instances are not thread-safe.
+ */
+public final class RecordStore implements AutoCloseable {
+    
+    /** Default number of records per segment. */
+    public static final int DEFAULT_SEGMENT_RECORDS = 1 << 20;
+    
+    /** Default capacity of a segment's value blob. */
+    public static final int DEFAULT_SEGMENT_VALUE_BYTES = 16 << 20;
+    
+    private static final byte[] NULL_JSON = "null".getBytes(StandardCharsets.US_ASCII);
+    
+    /**
+     * Receives the records of a scan.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        
+        /**
+         * Visits one record.
+         *
+         * @param nameId the dictionary id of the name, see {@link RecordStore#name(int)}
+         * @param timestamp the timestamp in epoch milliseconds
+         * @param value the UTF-8 JSON of the value, between position and limit; only valid during the call
+         */
+        void visit(int nameId, long timestamp, ByteBuffer value);
+    }
+    
+    private final Path spillDirectory;
+    private final int segmentRecords;
+    private final int segmentValueBytes;
+    
+    private final Map<String, Integer> nameIds = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    
+    private final List<Segment> sealed = new ArrayList<>();
+    private final List<Path> spillFiles = new ArrayList<>();
+    /** The segment being appended to, or null once the store is closed. */
+    private Segment active;
+    private long sealedRecords;
+    private long sealedBytes;
+    private boolean closed;
+    
+    /**
+     * Creates a store that keeps sealed segments in direct memory. Direct memory is limited by
+     * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size, and appending past
+     * that limit fails with {@code OutOfMemoryError: Direct buffer memory}. Use
+     * {@link #RecordStore(Path)} for stores that may grow beyond it.
+     */
+    public RecordStore() {
+        this(null, DEFAULT_SEGMENT_RECORDS, DEFAULT_SEGMENT_VALUE_BYTES);
+    }
+    
+    /**
+     * Creates a store that spills sealed segments to memory-mapped files.
+     *
+     * @param spillDirectory the directory for segment files
+     */
+    public RecordStore(Path spillDirectory) {
+        this(spillDirectory, DEFAULT_SEGMENT_RECORDS, DEFAULT_SEGMENT_VALUE_BYTES);
+    }
+    
+    /**
+     * Creates a store with a custom segment size.
+     *
+     * @param spillDirectory the directory for segment files, or null to keep sealed segments in direct memory
+     * @param segmentRecords the maximum number of records per segment
+     * @param segmentValueBytes the capacity of a segment's value blob, which bounds the size of a single value
+     */
+    public RecordStore(Path spillDirectory, int segmentRecords, int segmentValueBytes) {
+        if (segmentRecords < 1 || segmentValueBytes < Integer.BYTES) {
+            throw new IllegalArgumentException("Segment size too small: " + segmentRecords + " records, "
+                    + segmentValueBytes + " value bytes");
+        }
+        this.spillDirectory = spillDirectory;
+        this.segmentRecords = segmentRecords;
+        this.segmentValueBytes = segmentValueBytes;
+        this.active = new Segment(
+                allocate((long) segmentRecords * Long.BYTES),
+                allocate((long) segmentRecords * Integer.BYTES),
+                allocate(segmentValueBytes));
+    }
+    
+    /**
+     * Appends a record, serializing its value to JSON.
+     *
+     * @param name the record name
+     * @param timestamp the timestamp in epoch milliseconds
+     * @param value the value, serialized like the values passed to {@code processData}
+     */
+    public void append(String name, long timestamp, Object value) {
+        byte[] json;
+        try {
+            json = JsonCodecs.mapper().writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new RuntimeException("JSON processing failed", e);
+        }
+        append(name, timestamp, json);
+    }
+    
+    /**
+     * Appends a record parsed by {@link DataProcessor#parseRecord(String)}.
+     *
+     * @param record the record
+     */
+    public void append(ProcessedRecord record) {
+        append(record.name(), record.timestamp(), record.value());
+    }
+    
+    /**
+     * Appends a record parsed by {@link DataProcessor#parseLazy(String)}. The value is copied as
+     * its original JSON text, without being deserialized.
+     *
+     * @param record the record
+     */
+    public void append(LazyRecord record) {
+        String value = record.rawValue("value");
+        append(record.name(), record.timestamp(),
+                value == null ? NULL_JSON : value.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private void append(String name, long timestamp, byte[] valueJson) {
+        ensureOpen();
+        int entryBytes = Integer.BYTES + valueJson.length;
+        if (entryBytes > segmentValueBytes) {
+            throw new IllegalArgumentException("Value of " + valueJson.length
+                    + " bytes exceeds the segment value capacity of " + segmentValueBytes + " bytes");
+        }
+        if (active.records == segmentRecords || active.valueBytes + entryBytes > segmentValueBytes) {
+            seal();
+        }
+        active.add(intern(name), timestamp, valueJson);
+    }
+    
+    private int intern(String name) {
+        Integer id = nameIds.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            nameIds.put(name, id);
+        }
+        return id;
+    }
+    
+    /**
+     * Moves the active segment's records into a sealed segment and empties the active one.
+     */
+    private void seal() {
+        Segment segment;
+        try {
+            segment = spillDirectory == null ? active.copy() : spill(active);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to spill segment", e);
+        }
+        sealed.add(segment);
+        sealedRecords += segment.records;
+        sealedBytes += segment.footprint();
+        active.clear();
+    }
+    
+    /**
+     * Writes a segment's used column ranges to a new file and maps it read-only.
+     */
+    private Segment spill(Segment segment) throws IOException {
+        Path file = Files.createTempFile(spillDirectory, "records-", ".segment");
+        spillFiles.add(file);
+        ByteBuffer[] columns = {
+                segment.timestamps.slice(0, segment.records * Long.BYTES),
+                segment.nameIds.slice(0, segment.records * Integer.BYTES),
+                segment.values.slice(0, segment.valueBytes)
+        };
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = 0;
+            for (ByteBuffer column : columns) {
+                size += column.remaining();
+            }
+            while (columns[2].hasRemaining()) {
+                channel.write(columns);
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int timestampBytes = segment.records * Long.BYTES;
+            int nameBytes = segment.records * Integer.BYTES;
+            // The mapping stays valid after the channel is closed
+            return new Segment(
+                    mapped.slice(0, timestampBytes).order(ByteOrder.nativeOrder()),
+                    mapped.slice(timestampBytes, nameBytes).order(ByteOrder.nativeOrder()),
+                    mapped.slice(timestampBytes + nameBytes, segment.valueBytes).order(ByteOrder.nativeOrder()),
+                    segment.records, segment.valueBytes, segment.minTimestamp, segment.maxTimestamp);
+        }
+    }
+    
+    /**
+     * Visits every record in append order.
+     *
+     * @param visitor the visitor
+     */
+    public void scan(RecordVisitor visitor) {
+        scanBetween(Long.MIN_VALUE, Long.MAX_VALUE, visitor);
+    }
+    
+    /**
+     * Visits the records with a timestamp in {@code [from, to)}, in append order.
+     *
+     * @param from the lowest timestamp included
+     * @param to the lowest timestamp excluded
+     * @param visitor the visitor
+     */
+    public void scan(long from, long to, RecordVisitor visitor) {
+        if (to == Long.MIN_VALUE) {
+            ensureOpen();
+            return;
+        }
+        scanBetween(from, to - 1, visitor);
+    }
+    
+    /**
+     * Visits the records with a timestamp in {@code [first, last]}.
+     */
+    private void scanBetween(long first, long last, RecordVisitor visitor) {
+        ensureOpen();
+        for (Segment segment : sealed) {
+            segment.scan(first, last, visitor);
+        }
+        active.scan(first, last, visitor);
+    }
+    
+    /**
+     * Counts records and their timestamp range per name.
+     *
+     * @return the aggregates over all records
+     */
+    public Aggregates aggregateByName() {
+        return aggregateBetween(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+    
+    /**
+     * Counts records and their timestamp range per name, for timestamps in {@code [from, to)}.
+     *
+     * @param from the lowest timestamp included
+     * @param to the lowest timestamp excluded
+     * @return the aggregates
+     */
+    public Aggregates aggregateByName(long from, long to) {
+        if (to == Long.MIN_VALUE) {
+            ensureOpen();
+            return new Aggregates(names, nameIds);
+        }
+        return aggregateBetween(from, to - 1);
+    }
+    
+    /**
+     * Aggregates the records with a timestamp in {@code [first, last]}.
+     */
+    private Aggregates aggregateBetween(long first, long last) {
+        ensureOpen();
+        Aggregates aggregates = new Aggregates(names, nameIds);
+        for (Segment segment : sealed) {
+            segment.aggregate(first, last, aggregates);
+        }
+        active.aggregate(first, last, aggregates);
+        return aggregates;
+    }
+    
+    /**
+     * Returns the name with the given dictionary id.
+     *
+     * @param nameId the id passed to a {@link RecordVisitor}
+     * @return the name
+     */
+    public String name(int nameId) {
+        ensureOpen();
+        return names.get(nameId);
+    }
+    
+    /**
+     * Returns the dictionary id of a name, for comparing against the ids passed to a {@link RecordVisitor}.
+     *
+     * @param name the name
+     * @return the id, or -1 if no record has this name
+     */
+    public int nameId(String name) {
+        ensureOpen();
+        Integer id = nameIds.get(name);
+        return id == null ? -1 : id;
+    }
+    
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return the dictionary size
+     */
+    public int nameCount() {
+        ensureOpen();
+        return names.size();
+    }
+    
+    /**
+     * Returns the number of records.
+     *
+     * @return the record count
+     */
+    public long size() {
+        ensureOpen();
+        return sealedRecords + active.records;
+    }
+    
+    /**
+     * Returns the lowest timestamp stored.
+     *
+     * @return the timestamp, or {@link Long#MAX_VALUE} if the store is empty
+     */
+    public long minTimestamp() {
+        ensureOpen();
+        long min = active.minTimestamp;
+        for (Segment segment : sealed) {
+            min = Math.min(min, segment.minTimestamp);
+        }
+        return min;
+    }
+    
+    /**
+     * Returns the highest timestamp stored.
+     *
+     * @return the timestamp, or {@link Long#MIN_VALUE} if the store is empty
+     */
+    public long maxTimestamp() {
+        ensureOpen();
+        long max = active.maxTimestamp;
+        for (Segment segment : sealed) {
+            max = Math.max(max, segment.maxTimestamp);
+        }
+        return max;
+    }
+    
+    /**
+     * Returns the number of sealed segments.
+     *
+     * @return the sealed segment count
+     */
+    public int sealedSegments() {
+        return sealed.size();
+    }
+    
+    /**
+     * Returns the bytes held outside the heap by sealed segments, in direct memory or mapped files,
+     * plus the capacity of the active segment.
+     *
+     * @return the off-heap footprint in bytes
+     */
+    public long offHeapBytes() {
+        ensureOpen();
+        return sealedBytes + active.capacity();
+    }
+    
+    /**
+     * Deserializes a value passed to a {@link RecordVisitor}.
+     *
+     * @param value the value's JSON, between position and limit; its position is not changed
+     * @return the value as a plain JSON value, as {@link DataProcessor#parseData(String)} would return it
+     */
+    public static Object readValue(ByteBuffer value) {
+        try {
+            return JsonCodecs.reader(Object.class).readValue(new ByteBufferBackedInputStream(value.duplicate()));
+        } catch (IOException e) {
+            throw new RuntimeException("JSON parsing failed", e);
+        }
+    }
+    
+    /**
+     * Releases the segments, including the active one, and deletes spill files. Direct and mapped
+     * memory is returned once the buffers are garbage collected.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        active = null;
+        sealed.clear();
+        for (Path file : spillFiles) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete spill file " + file, e);
+            }
+        }
+        spillFiles.clear();
+    }
+    
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Record store is closed");
+        }
+    }
+    
+    private static ByteBuffer allocate(long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment column of " + bytes + " bytes exceeds 2 GB");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+    
+    /**
+     * Per-name results of {@link #aggregateByName(long, long)}.
+     */
+    public static final class Aggregates {
+        
+        private final List<String> names;
+        private final Map<String, Integer> nameIds;
+        private final long[] counts;
+        private final long[] minTimestamps;
+        private final long[] maxTimestamps;
+        
+        private Aggregates(List<String> names, Map<String, Integer> nameIds) {
+            this.names = names;
+            this.nameIds = nameIds;
+            this.counts = new long[names.size()];
+            this.minTimestamps = new long[names.size()];
+            this.maxTimestamps = new long[names.size()];
+            Arrays.fill(minTimestamps, Long.MAX_VALUE);
+            Arrays.fill(maxTimestamps, Long.MIN_VALUE);
+        }
+        
+        /**
+         * Returns the id of a name, or -1 if it was added to the store after this aggregation.
+         */
+        private int id(String name) {
+            Integer id = nameIds.get(name);
+            return id == null || id >= counts.length ? -1 : id;
+        }
+        
+        /**
+         * Returns the number of matching records with a name.
+         *
+         * @param name the name
+         * @return the count, 0 if there are none
+         */
+        public long count(String name) {
+            int id = id(name);
+            return id < 0 ? 0 : counts[id];
+        }
+        
+        /**
+         * Returns the lowest timestamp of the matching records with a name.
+         *
+         * @param name the name
+         * @return the timestamp, or {@link Long#MAX_VALUE} if there are none
+         */
+        public long minTimestamp(String name) {
+            int id = id(name);
+            return id < 0 ? Long.MAX_VALUE : minTimestamps[id];
+        }
+        
+        /**
+         * Returns the highest timestamp of the matching records with a name.
+         *
+         * @param name the name
+         * @return the timestamp, or {@link Long#MIN_VALUE} if there are none
+         */
+        public long maxTimestamp(String name) {
+            int id = id(name);
+            return id < 0 ? Long.MIN_VALUE : maxTimestamps[id];
+        }
+        
+        /**
+         * Returns the names with at least one matching record.
+         *
+         * @return the names, in order of first appearance in the store
+         */
+        public List<String> names() {
+            List<String> present = new ArrayList<>();
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    present.add(names.get(id));
+                }
+            }
+            return Collections.unmodifiableList(present);
+        }
+        
+        /**
+         * Returns the total number of matching records.
+         *
+         * @return the count
+         */
+        public long totalCount() {
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Aggregates{");
+            for (String name : names()) {
+                if (sb.length() > "Aggregates{".length()) {
+                    sb.append(", ");
+                }
+                sb.append(name).append('=').append(count(name));
+            }
+            return sb.append('}').toString();
+        }
+    }
+    
+    /**
+     * The columns of one segment. The active segment owns full-capacity direct buffers;
+     * sealed segments hold buffers of exactly the used size.
+     */
+    private static final class Segment {
+        
+        final ByteBuffer timestamps;
+        final ByteBuffer nameIds;
+        final ByteBuffer values;
+        int records;
+        int valueBytes;
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        
+        Segment(ByteBuffer timestamps, ByteBuffer nameIds, ByteBuffer values) {
+            this.timestamps = timestamps;
+            this.nameIds = nameIds;
+            this.values = values;
+        }
+        
+        Segment(ByteBuffer timestamps, ByteBuffer nameIds, ByteBuffer values,
+                int records, int valueBytes, long minTimestamp, long maxTimestamp) {
+            this(timestamps, nameIds, values);
+            this.records = records;
+            this.valueBytes = valueBytes;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+        
+        void add(int nameId, long timestamp, byte[] valueJson) {
+            timestamps.putLong(records * Long.BYTES, timestamp);
+            nameIds.putInt(records * Integer.BYTES, nameId);
+            values.putInt(valueBytes, valueJson.length);
+            values.put(valueBytes + Integer.BYTES, valueJson);
+            valueBytes += Integer.BYTES + valueJson.length;
+            records++;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+        }
+        
+        /**
+         * Copies the used part of each column into new direct buffers of exactly that size.
+         */
+        Segment copy() {
+            return new Segment(
+                    copyOf(timestamps, records * Long.BYTES),
+                    copyOf(nameIds, records * Integer.BYTES),
+                    copyOf(values, valueBytes),
+                    records, valueBytes, minTimestamp, maxTimestamp);
+        }
+        
+        private static ByteBuffer copyOf(ByteBuffer column, int length) {
+            ByteBuffer copy = allocate(length);
+            copy.put(0, column, 0, length);
+            return copy;
+        }
+        
+        void clear() {
+            records = 0;
+            valueBytes = 0;
+            minTimestamp = Long.MAX_VALUE;
+            maxTimestamp = Long.MIN_VALUE;
+        }
+        
+        long capacity() {
+            return (long) timestamps.capacity() + nameIds.capacity() + values.capacity();
+        }
+        
+        long footprint() {
+            return (long) records * (Long.BYTES + Integer.BYTES) + valueBytes;
+        }
+        
+        boolean overlaps(long first, long last) {
+            return records > 0 && minTimestamp <= last && maxTimestamp >= first;
+        }
+        
+        boolean within(long first, long last) {
+            return minTimestamp >= first && maxTimestamp <= last;
+        }
+        
+        void scan(long first, long last, RecordVisitor visitor) {
+            if (!overlaps(first, last)) {
+                return;
+            }
+            // One view of the blob per scan, narrowed to each value in turn
+            ByteBuffer value = values.duplicate();
+            int offset = 0;
+            for (int i = 0; i < records; i++) {
+                int length = values.getInt(offset);
+                int start = offset + Integer.BYTES;
+                offset = start + length;
+                long timestamp = timestamps.getLong(i * Long.BYTES);
+                if (timestamp >= first && timestamp <= last) {
+                    value.limit(offset).position(start);
+                    visitor.visit(nameIds.getInt(i * Integer.BYTES), timestamp, value);
+                }
+            }
+        }
+        
+        void aggregate(long first, long last, Aggregates aggregates) {
+            if (!overlaps(first, last)) {
+                return;
+            }
+            long[] counts = aggregates.counts;
+            long[] mins = aggregates.minTimestamps;
+            long[] maxs = aggregates.maxTimestamps;
+            boolean all = within(first, last);
+            for (int i = 0; i < records; i++) {
+                long timestamp = timestamps.getLong(i * Long.BYTES);
+                if (all || timestamp >= first && timestamp <= last) {
+                    int id = nameIds.getInt(i * Integer.BYTES);
+                    counts[id]++;
+                    if (timestamp < mins[id]) {
+                        mins[id] = timestamp;
+                    }
+                    if (timestamp > maxs[id]) {
+                        maxs[id] = timestamp;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Field-level changes to a serialized record, applied by
+ * {@link DataProcessor#updateData(String, RecordUpdate)}.
+ *
+ * <p>Changes are applied while streaming tokens from the input to the output: fields that are
+ * not changed, including large {@code value} payloads, are copied without building a tree, and
+ * for JSON text without decoding them at all, keeping their original formatting. Changed fields
+ * keep their position; new fields are appended in the order they were added. A later change to
+ * a field replaces an earlier one.
+ */
+public final class RecordUpdate {
+    
+    private enum Kind { SET, REMOVE, MERGE }
+    
+    private static final class Change {
+        
+        final Kind kind;
+        final Object value;
+        
+        Change(Kind kind, Object value) {
+            this.kind = kind;
+            this.value = value;
+        }
+    }
+    
+    private final Map<String, Change> changes;
+    
+    public RecordUpdate() {
+        this.changes = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Sets a top-level field, replacing its current value.
+     *
+     * @param field the field name, such as {@code value} or {@code timestamp}
+     * @param value the new value, serialized like the values passed to {@code processData}
+     * @return this update
+     */
+    public RecordUpdate set(String field, Object value) {
+        changes.put(field, new Change(Kind.SET, value));
+        return this;
+    }
+    
+    /**
+     * Removes a top-level field if present.
+     *
+     * @param field the field name
+     * @return this update
+     */
+    public RecordUpdate remove(String field) {
+        changes.put(field, new Change(Kind.REMOVE, null));
+        return this;
+    }
+    
+    /**
+     * Applies a JSON merge patch (RFC 7386): null values remove fields, object values are merged
+     * into existing objects field by field, and any other value replaces the field.
+     *
+     * @param patch the patch to apply to the record
+     * @return this update
+     */
+    public RecordUpdate merge(Map<String, ?> patch) {
+        for (Map.Entry<String, ?> entry : patch.entrySet()) {
+            Object value = entry.getValue();
+            if (value == null) {
+                remove(entry.getKey());
+            } else if (value instanceof Map) {
+                changes.put(entry.getKey(), new Change(Kind.MERGE, value));
+            } else {
+                set(entry.getKey(), value);
+            }
+        }
+        return this;
+    }
+    
+    /**
+     * Returns whether this update changes nothing.
+     *
+     * @return true if no changes were added
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+    
+    /**
+     * Copies the object the parser is positioned before to the generator, applying the changes.
+     * When the parser reads JSON from {@code source}, untouched fields are skipped without decoding
+     * and written as raw slices of the source; otherwise they are copied token by token.
+     */
+    void apply(JsonParser parser, JsonGenerator generator, String source) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected a JSON object, found " + parser.currentToken());
+        }
+        applyToObject(parser, generator, source);
+        if (parser.nextToken() != null) {
+            throw new JsonParseException(parser, "Unexpected content after the JSON object: " + parser.currentToken());
+        }
+    }
+    
+    /**
+     * Copies the object whose START_OBJECT is the current token, applying the changes to its fields.
+     */
+    private void applyToObject(JsonParser parser, JsonGenerator generator, String source) throws IOException {
+        generator.writeStartObject();
+        Map<String, Change> pending = new LinkedHashMap<>(changes);
+        // An untouched field whose raw value is written once the start of the next token is known.
+        String rawField = null;
+        int rawStart = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (rawField != null) {
+                writeRaw(generator, source, rawField, rawStart, parser);
+                rawField = null;
+            }
+            String field = parser.currentName();
+            parser.nextToken();
+            Change change = pending.remove(field);
+            if (change == null) {
+                if (source != null) {
+                    rawField = field;
+                    rawStart = (int) parser.currentTokenLocation().getCharOffset();
+                    parser.skipChildren();
+                } else {
+                    generator.writeFieldName(field);
+                    generator.copyCurrentStructure(parser);
+                }
+                continue;
+            }
+            switch (change.kind) {
+                case SET:
+                    generator.writeFieldName(field);
+                    generator.writeObject(change.value);
+                    parser.skipChildren();
+                    break;
+                case REMOVE:
+                    parser.skipChildren();
+                    break;
+                case MERGE:
+                    generator.writeFieldName(field);
+                    if (parser.currentToken() == JsonToken.START_OBJECT) {
+                        nested(change).applyToObject(parser, generator, source);
+                    } else {
+                        parser.skipChildren();
+                        writePatch(generator, change.value);
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown change " + change.kind);
+            }
+        }
+        if (rawField != null) {
+            writeRaw(generator, source, rawField, rawStart, parser);
+        }
+        for (Map.Entry<String, Change> entry : pending.entrySet()) {
+            Change change = entry.getValue();
+            if (change.kind == Kind.SET) {
+                generator.writeFieldName(entry.getKey());
+                generator.writeObject(change.value);
+            } else if (change.kind == Kind.MERGE) {
+                generator.writeFieldName(entry.getKey());
+                writePatch(generator, change.value);
+            }
+        }
+        generator.writeEndObject();
+    }
+    
+    /**
+     * Writes the source text of a skipped value, which runs from {@code start} up to the separator
+     * before the parser's current token.
+     */
+    private static void writeRaw(JsonGenerator generator, String source, String field, int start,
+                                 JsonParser parser) throws IOException {
+        int end = JsonSlices.endOfValue(source, start, parser);
+        generator.writeFieldName(field);
+        generator.writeRawValue(source, start, end - start);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static RecordUpdate nested(Change change) {
+        Map<String, ?> patch = (Map<String, ?>) change.value;
+        return new RecordUpdate().merge(patch);
+    }
+    
+    /**
+     * Writes a patch value where there is no existing object to merge into:
+     * per RFC 7386 this is the patch applied to an empty object, which drops null members.
+     */
+    private static void writePatch(JsonGenerator generator, Object value) throws IOException {
+        if (!(value instanceof Map)) {
+            generator.writeObject(value);
+            return;
+        }
+        generator.writeStartObject();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (entry.getValue() != null) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writePatch(generator, entry.getValue());
+            }
+        }
+        generator.writeEndObject();
+    }
+    
+    @Override
+    public String toString() {
+        return "RecordUpdate" + changes.keySet();
+    }
+}
@@ -0,0 +1,275 @@
+package com.example;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.type.LogicalType;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded table that maps equal strings to one shared instance, so that the recurring values of
+ * parsed documents (record names, status codes, enumerations) are retained once instead of once
+ * per document.
+ *
+ * <p>Pass a canonicalizer to {@link DataProcessor#DataProcessor(com.example.metrics.MetricsRegistry,
+ * java.time.Clock, StringCanonicalizer)} to canonicalize the string values it parses. Strings are
+ * looked up while Jackson deserializes them, from the parser's character buffer, so a value that
+ * is already in the table is not allocated at all. Field names need no table: Jackson already
+ * interns them in the symbol table of its parser factory.
+ *
+ * <p>The table has a fixed number of slots, grouped in pairs by hash. A new string replaces the
+ * probation slot of its pair; a hit in the probation slot swaps it with the primary slot. Strings
+ * seen once, such as identifiers, therefore only evict each other, while a recurring value stays
+ * in the primary slot until another value of the same pair recurs more recently. Strings longer
+ * than the maximum length are returned as is.
+ *
+ * <p>The table is safe for concurrent use without locking. Racing threads may lose each other's
+ * updates, which costs a miss but never returns a string with other content: strings are
+ * immutable and safely published through their final fields.
+ */
+public final class StringCanonicalizer {
+    
+    /** Default number of slots. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    
+    /** Default length of the longest string that is canonicalized. */
+    public static final int DEFAULT_MAX_LENGTH = 32;
+    
+    /** Header and fields of a {@code String}, on a 64-bit JVM with compressed references. */
+    private static final int STRING_BYTES = 24;
+    
+    /** Header of a {@code byte[]}, on a 64-bit JVM with compressed references. */
+    private static final int ARRAY_HEADER_BYTES = 16;
+    
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+    
+    /**
+     * Creates a table with {@value #DEFAULT_CAPACITY} slots for strings of up to
+     * {@value #DEFAULT_MAX_LENGTH} characters.
+     */
+    public StringCanonicalizer() {
+        this(DEFAULT_CAPACITY, DEFAULT_MAX_LENGTH);
+    }
+    
+    /**
+     * Creates a table.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param maxLength the length of the longest string to canonicalize
+     */
+    public StringCanonicalizer(int capacity, int maxLength) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 2 and 2^30: " + capacity);
+        }
+        if (maxLength < 0) {
+            throw new IllegalArgumentException("maxLength must not be negative: " + maxLength);
+        }
+        int slots = Integer.highestOneBit(capacity - 1) << 1;
+        this.table = new String[slots];
+        this.mask = slots - 2;
+        this.maxLength = maxLength;
+    }
+    
+    /**
+     * Returns the shared instance of a string, adding the string to the table if it has none.
+     *
+     * @param s the string, may be null
+     * @return an equal string, or null if {@code s} is null
+     */
+    public String canonicalize(String s) {
+        if (s == null || s.length() > maxLength) {
+            return s;
+        }
+        int slot = slot(s.hashCode());
+        String primary = table[slot];
+        if (s.equals(primary)) {
+            return hit(s, primary);
+        }
+        String probation = table[slot + 1];
+        if (s.equals(probation)) {
+            promote(slot, primary, probation);
+            return hit(s, probation);
+        }
+        table[slot + 1] = s;
+        misses.increment();
+        return s;
+    }
+    
+    /**
+     * Returns the shared instance of a string given as characters, creating and adding one if the
+     * table has none. Nothing is allocated on a hit.
+     *
+     * @param chars the characters
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return a string with the given characters
+     */
+    public String canonicalize(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        // Same hash as String.hashCode(), so both lookups agree on the slot
+        int hash = 0;
+        int bits = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            char c = chars[i];
+            hash = 31 * hash + c;
+            bits |= c;
+        }
+        int slot = slot(hash);
+        String primary = table[slot];
+        if (contentEquals(primary, hash, chars, offset, length)) {
+            return hit(length, bits, primary);
+        }
+        String probation = table[slot + 1];
+        if (contentEquals(probation, hash, chars, offset, length)) {
+            promote(slot, primary, probation);
+            return hit(length, bits, probation);
+        }
+        String s = new String(chars, offset, length);
+        table[slot + 1] = s;
+        misses.increment();
+        return s;
+    }
+    
+    /**
+     * Returns how many lookups found a shared instance.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+    
+    /**
+     * Returns how many lookups added a new string to the table. Strings longer than the maximum
+     * length are not counted.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+    
+    /**
+     * Returns an estimate of the heap not retained because hits returned a shared instance instead
+     * of a copy: the size of each copy's {@code String} and {@code byte[]}, on a 64-bit JVM with
+     * compressed references and compact strings.
+     *
+     * @return the estimated number of bytes saved
+     */
+    public long bytesSaved() {
+        return bytesSaved.sum();
+    }
+    
+    /**
+     * Returns the number of slots.
+     *
+     * @return the capacity
+     */
+    public int capacity() {
+        return table.length;
+    }
+    
+    @Override
+    public String toString() {
+        return "StringCanonicalizer[capacity=" + table.length + ", hits=" + hits() + ", misses=" + misses()
+                + ", bytesSaved=" + bytesSaved() + "]";
+    }
+    
+    /**
+     * Returns a module that routes string deserialization through the canonicalizer set as the
+     * reader attribute {@code StringCanonicalizer.class}. Readers without the attribute deserialize
+     * strings as usual.
+     */
+    static Module module() {
+        return new SimpleModule("StringCanonicalizer").addDeserializer(String.class, new CanonicalizingDeserializer());
+    }
+    
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) << 1 & mask;
+    }
+    
+    private void promote(int slot, String primary, String probation) {
+        table[slot] = probation;
+        table[slot + 1] = primary;
+    }
+    
+    private String hit(String s, String shared) {
+        hits.increment();
+        if (s != shared) {
+            int bits = 0;
+            for (int i = 0; i < s.length(); i++) {
+                bits |= s.charAt(i);
+            }
+            bytesSaved.add(sizeOf(s.length(), bits <= 0xFF));
+        }
+        return shared;
+    }
+    
+    private String hit(int length, int bits, String shared) {
+        hits.increment();
+        bytesSaved.add(sizeOf(length, bits <= 0xFF));
+        return shared;
+    }
+    
+    private static long sizeOf(int length, boolean latin1) {
+        int arrayBytes = ARRAY_HEADER_BYTES + (latin1 ? length : 2 * length);
+        return STRING_BYTES + ((arrayBytes + 7) & ~7);
+    }
+    
+    private static boolean contentEquals(String s, int hash, char[] chars, int offset, int length) {
+        if (s == null || s.length() != length || s.hashCode() != hash) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Deserializes string values through the reader's canonicalizer, from the parser's buffer.
+     */
+    private static final class CanonicalizingDeserializer extends StdScalarDeserializer<String> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        CanonicalizingDeserializer() {
+            super(String.class);
+        }
+        
+        @Override
+        public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            StringCanonicalizer canonicalizer = (StringCanonicalizer) ctxt.getAttribute(StringCanonicalizer.class);
+            if (canonicalizer != null && p.hasToken(JsonToken.VALUE_STRING)) {
+                return canonicalizer.canonicalize(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            }
+            return StringDeserializer.instance.deserialize(p, ctxt);
+        }
+        
+        @Override
+        public LogicalType logicalType() {
+            return LogicalType.Textual;
+        }
+        
+        @Override
+        public boolean isCachable() {
+            return true;
+        }
+    }
+}
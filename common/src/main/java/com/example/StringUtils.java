@@ -1,22 +1,32 @@
 package com.example;
 
-import java.util.Arrays;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-import org.apache.commons.lang3.RandomStringUtils;
-import org.apache.commons.lang3.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Enhanced string utilities that extend Apache Commons Lang functionality.
- * This module demonstrates the use of external dependencies with version properties.
+ * Enhanced string utilities implemented on the JDK alone. Their behavior matches the
+ * corresponding Apache Commons Lang methods, which the tests use as a reference.
  */
 public class StringUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(StringUtils.class);
     
+    /** Needle length from which {@link #countOccurrences(String, String)} switches to Horspool. */
+    private static final int HORSPOOL_MIN_PATTERN = 16;
+    
+    /** Haystack length below which building the Horspool table does not pay off. */
+    private static final int HORSPOOL_MIN_TEXT = 4096;
+    
     /**
      * Checks if a string is blank (null, empty, or whitespace only).
      * 
@@ -24,7 +34,43 @@ public class StringUtils {
      * @return true if the string is blank
      */
     public static boolean isBlank(String str) {
-        return org.apache.commons.lang3.StringUtils.isBlank(str);
+        return isBlank((CharSequence) str);
+    }
+    
+    /**
+     * Checks if a character sequence is blank (null, empty, or whitespace only).
+     * 
+     * @param cs the character sequence to check
+     * @return true if the sequence is blank
+     */
+    public static boolean isBlank(CharSequence cs) {
+        if (cs == null) {
+            return true;
+        }
+        for (int i = 0, n = cs.length(); i < n; i++) {
+            if (!Character.isWhitespace(cs.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Checks if a range of a character buffer is blank (empty or whitespace only).
+     * 
+     * @param buf the buffer to check
+     * @param offset the index of the first character of the range
+     * @param length the number of characters in the range
+     * @return true if the range is blank
+     */
+    public static boolean isBlank(char[] buf, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        for (int i = offset, end = offset + length; i < end; i++) {
+            if (!Character.isWhitespace(buf[i])) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
@@ -34,7 +80,17 @@ public class StringUtils {
      * @return true if the string is not blank
      */
     public static boolean isNotBlank(String str) {
-        return org.apache.commons.lang3.StringUtils.isNotBlank(str);
+        return !isBlank((CharSequence) str);
+    }
+    
+    /**
+     * Checks if a character sequence is not blank.
+     * 
+     * @param cs the character sequence to check
+     * @return true if the sequence is not blank
+     */
+    public static boolean isNotBlank(CharSequence cs) {
+        return !isBlank(cs);
     }
     
     /**
@@ -47,12 +103,22 @@ public class StringUtils {
         if (isBlank(str)) {
             return str;
         }
-        logger.debug("Capitalizing string: {}", str);
-        return org.apache.commons.lang3.StringUtils.capitalize(str);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Capitalizing string: {}", LogValues.truncate(str));
+        }
+        int first = str.codePointAt(0);
+        int title = Character.toTitleCase(first);
+        if (first == title) {
+            return str;
+        }
+        return new StringBuilder(str.length() + 1)
+                .appendCodePoint(title)
+                .append(str, Character.charCount(first), str.length())
+                .toString();
     }
     
     /**
-     * Reverses a string.
+     * Reverses a string. Surrogate pairs are kept in order.
      * 
      * @param str the string to reverse
      * @return the reversed string
@@ -61,19 +127,71 @@ public class StringUtils {
         if (isBlank(str)) {
             return str;
         }
-        logger.debug("Reversing string: {}", str);
-        return org.apache.commons.lang3.StringUtils.reverse(str);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Reversing string: {}", LogValues.truncate(str));
+        }
+        int n = str.length();
+        char[] reversed = new char[n];
+        boolean hasSurrogates = false;
+        for (int i = 0, j = n - 1; i < n; i++, j--) {
+            char c = str.charAt(i);
+            hasSurrogates |= Character.isSurrogate(c);
+            reversed[j] = c;
+        }
+        if (hasSurrogates) {
+            // Pairs came out as low-high; swap them back to high-low.
+            for (int i = 0; i < n - 1; i++) {
+                if (Character.isLowSurrogate(reversed[i]) && Character.isHighSurrogate(reversed[i + 1])) {
+                    char low = reversed[i];
+                    reversed[i] = reversed[i + 1];
+                    reversed[++i] = low;
+                }
+            }
+        }
+        return new String(reversed);
     }
     
     /**
      * Generates a random alphanumeric string of specified length.
+     * Uses {@link RandomStrings#alphanumeric()}, which does not contend across threads.
      * 
      * @param length the length of the string to generate
      * @return a random alphanumeric string
      */
     public static String generateRandomString(int length) {
-        logger.debug("Generating random string of length: {}", length);
-        return RandomStringUtils.randomAlphanumeric(length);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generating random string of length: {}", length);
+        }
+        return RandomStrings.alphanumeric().next(length);
+    }
+    
+    /**
+     * Generates a random alphanumeric string of specified length from a {@link java.security.SecureRandom},
+     * for identifiers that must not be predictable.
+     * 
+     * @param length the length of the string to generate
+     * @return a random alphanumeric string
+     */
+    public static String generateSecureRandomString(int length) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generating secure random string of length: {}", length);
+        }
+        return RandomStrings.secureAlphanumeric().next(length);
+    }
+    
+    /**
+     * Generates several random alphanumeric strings of the same length.
+     * Cheaper per string than repeated {@link #generateRandomString(int)} calls.
+     * 
+     * @param count the number of strings to generate
+     * @param length the length of each string
+     * @return the random strings
+     */
+    public static List<String> generateRandomStrings(int count, int length) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Generating {} random strings of length: {}", count, length);
+        }
+        return RandomStrings.alphanumeric().next(count, length);
     }
     
     /**
@@ -86,8 +204,10 @@ public class StringUtils {
         if (isBlank(str)) {
             return str;
         }
-        logger.debug("Escaping HTML in string: {}", str);
-        return StringEscapeUtils.escapeHtml4(str);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Escaping HTML in string: {}", LogValues.truncate(str));
+        }
+        return HtmlEscaper.escape(str);
     }
     
     /**
@@ -100,12 +220,15 @@ public class StringUtils {
         if (isBlank(str)) {
             return str;
         }
-        logger.debug("Unescaping HTML in string: {}", str);
-        return StringEscapeUtils.unescapeHtml4(str);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Unescaping HTML in string: {}", LogValues.truncate(str));
+        }
+        return HtmlEscaper.unescape(str);
     }
     
     /**
      * Joins a list of strings with a delimiter.
+     * Null elements are treated as empty strings.
      * 
      * @param strings the list of strings to join
      * @param delimiter the delimiter to use
@@ -115,31 +238,152 @@ public class StringUtils {
         if (strings == null || strings.isEmpty()) {
             return "";
         }
-        logger.debug("Joining {} strings with delimiter: {}", strings.size(), delimiter);
-        return org.apache.commons.lang3.StringUtils.join(strings, delimiter);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Joining {} strings with delimiter: {}", strings.size(), delimiter);
+        }
+        String separator = delimiter == null ? "" : delimiter;
+        int length = separator.length() * (strings.size() - 1);
+        for (String s : strings) {
+            if (s != null) {
+                length += s.length();
+            }
+        }
+        StringBuilder builder = new StringBuilder(length);
+        boolean first = true;
+        for (String s : strings) {
+            if (!first) {
+                builder.append(separator);
+            }
+            if (s != null) {
+                builder.append(s);
+            }
+            first = false;
+        }
+        return builder.toString();
     }
     
     /**
      * Splits a string and trims each part.
+     * Every character of the delimiter is a separator and adjacent separators are
+     * treated as one; a null delimiter splits on whitespace. Blank parts are dropped.
      * 
      * @param str the string to split
-     * @param delimiter the delimiter to split on
+     * @param delimiter the separator characters to split on
      * @return list of trimmed strings
      */
     public static List<String> splitAndTrim(String str, String delimiter) {
-        if (isBlank(str)) {
+        return splitAndTrim((CharSequence) str, delimiter);
+    }
+    
+    /**
+     * Splits a character sequence and trims each part.
+     * 
+     * @param cs the character sequence to split
+     * @param delimiter the separator characters to split on
+     * @return list of trimmed strings
+     * @see #splitAndTrim(String, String)
+     */
+    public static List<String> splitAndTrim(CharSequence cs, String delimiter) {
+        if (isBlank(cs)) {
             return List.of();
         }
-        logger.debug("Splitting and trimming string: {}", str);
-        return Arrays.asList(org.apache.commons.lang3.StringUtils.split(str, delimiter))
-                .stream()
-                .map(String::trim)
-                .filter(StringUtils::isNotBlank)
-                .collect(Collectors.toList());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Splitting and trimming string: {}", LogValues.truncate(cs));
+        }
+        List<String> result = new ArrayList<>();
+        int n = cs.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && isDelimiter(cs.charAt(i), delimiter)) {
+                i++;
+            }
+            int start = i;
+            while (i < n && !isDelimiter(cs.charAt(i), delimiter)) {
+                i++;
+            }
+            int end = i;
+            while (start < end && cs.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && cs.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            if (start < end && !isBlankRange(cs, start, end)) {
+                result.add(cs instanceof String ? ((String) cs).substring(start, end)
+                        : cs.subSequence(start, end).toString());
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Splits a range of a character buffer and trims each part.
+     * 
+     * @param buf the buffer to split
+     * @param offset the index of the first character of the range
+     * @param length the number of characters in the range
+     * @param delimiter the separator characters to split on
+     * @return list of trimmed strings
+     * @see #splitAndTrim(String, String)
+     */
+    public static List<String> splitAndTrim(char[] buf, int offset, int length, String delimiter) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        return splitAndTrim(CharBuffer.wrap(buf, offset, length), delimiter);
+    }
+    
+    /**
+     * Lazily splits a character sequence and trims each part.
+     * Tokens are zero-copy views over {@code cs}; call {@code toString()} on those that need to outlive it.
+     * The stream may be made {@code parallel()}; it then splits the input at delimiter boundaries.
+     * 
+     * @param cs the character sequence to split
+     * @param delimiter the separator characters to split on
+     * @return stream of trimmed, non-blank tokens, in input order
+     * @see #splitAndTrim(String, String)
+     */
+    public static Stream<CharSequence> splitAndTrimStream(CharSequence cs, String delimiter) {
+        if (isBlank(cs)) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new TokenSpliterator(cs, 0, cs.length(), delimiter), false);
+    }
+    
+    /**
+     * Lazily splits the characters read from a reader and trims each part.
+     * The input is read incrementally as the stream is consumed, so memory use is bounded by
+     * the longest token rather than the size of the input. The reader is not closed.
+     * I/O errors are rethrown as {@link java.io.UncheckedIOException}.
+     * 
+     * @param reader the reader to tokenize
+     * @param delimiter the separator characters to split on
+     * @return stream of trimmed, non-blank tokens, in input order
+     * @see #splitAndTrim(String, String)
+     */
+    public static Stream<String> splitAndTrimStream(Reader reader, String delimiter) {
+        ReaderTokenIterator tokens = new ReaderTokenIterator(reader, delimiter);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(tokens, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+    
+    static boolean isDelimiter(char c, String delimiter) {
+        if (delimiter == null) {
+            return Character.isWhitespace(c);
+        }
+        return delimiter.length() == 1 ? c == delimiter.charAt(0) : delimiter.indexOf(c) >= 0;
+    }
+    
+    private static boolean isBlankRange(CharSequence cs, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(cs.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
      * Counts the occurrences of a substring in a string.
+     * Matches do not overlap.
      * 
      * @param str the string to search in
      * @param sub the substring to count
@@ -149,8 +393,108 @@ public class StringUtils {
         if (isBlank(str) || isBlank(sub)) {
             return 0;
         }
-        logger.debug("Counting occurrences of '{}' in '{}'", sub, str);
-        return org.apache.commons.lang3.StringUtils.countMatches(str, sub);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Counting occurrences of '{}' in '{}'", LogValues.truncate(sub), LogValues.truncate(str));
+        }
+        if (sub.length() >= HORSPOOL_MIN_PATTERN && str.length() >= HORSPOOL_MIN_TEXT) {
+            return new HorspoolMatcher(sub).count(str);
+        }
+        int count = 0;
+        int index = str.indexOf(sub);
+        while (index >= 0) {
+            count++;
+            index = str.indexOf(sub, index + sub.length());
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the occurrences of a substring in a character sequence.
+     * 
+     * @param cs the character sequence to search in
+     * @param sub the substring to count
+     * @return the number of occurrences
+     * @see #countOccurrences(String, String)
+     */
+    public static int countOccurrences(CharSequence cs, CharSequence sub) {
+        if (cs instanceof String && sub instanceof String) {
+            return countOccurrences((String) cs, (String) sub);
+        }
+        if (isBlank(cs) || isBlank(sub)) {
+            return 0;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Counting occurrences of '{}' in '{}'", LogValues.truncate(sub), LogValues.truncate(cs));
+        }
+        int count = 0;
+        int m = sub.length();
+        char first = sub.charAt(0);
+        for (int i = 0, last = cs.length() - m; i <= last; i++) {
+            if (cs.charAt(i) == first && regionMatches(cs, i, sub, m)) {
+                count++;
+                i += m - 1;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the occurrences of a substring in a range of a character buffer.
+     * 
+     * @param buf the buffer to search in
+     * @param offset the index of the first character of the range
+     * @param length the number of characters in the range
+     * @param sub the substring to count
+     * @return the number of occurrences
+     * @see #countOccurrences(String, String)
+     */
+    public static int countOccurrences(char[] buf, int offset, int length, CharSequence sub) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        if (isBlank(buf, offset, length) || isBlank(sub)) {
+            return 0;
+        }
+        int count = 0;
+        int m = sub.length();
+        char first = sub.charAt(0);
+        for (int i = offset, last = offset + length - m; i <= last; i++) {
+            if (buf[i] != first) {
+                continue;
+            }
+            int k = 1;
+            while (k < m && buf[i + k] == sub.charAt(k)) {
+                k++;
+            }
+            if (k == m) {
+                count++;
+                i += m - 1;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the occurrences of several substrings in a string, scanning it only once.
+     * Each count is the same as {@link #countOccurrences(String, String)} would return for that substring.
+     * To search many texts for the same substrings, reuse a {@link MultiPatternCounter} instead.
+     * 
+     * @param str the string to search in
+     * @param subs the substrings to count
+     * @return the number of occurrences of each substring, in the order given
+     */
+    public static int[] countAllOccurrences(String str, List<String> subs) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Counting occurrences of {} substrings", subs.size());
+        }
+        return new MultiPatternCounter(subs).count(str);
+    }
+    
+    private static boolean regionMatches(CharSequence cs, int offset, CharSequence sub, int length) {
+        for (int k = 1; k < length; k++) {
+            if (cs.charAt(offset + k) != sub.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
     }
     
     /**
@@ -0,0 +1,93 @@
+package com.example;
+
+import java.nio.CharBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the trimmed, non-blank tokens of a character sequence, using the
+ * splitting rules of {@link StringUtils#splitAndTrim(String, String)}.
+ * 
+ * <p>Tokens are read-only {@link CharBuffer} views over the source, so no characters are copied.
+ * Splitting halves the remaining range and moves the cut forward to the next delimiter,
+ * so no token is ever cut in two and parallel streams see the same tokens as sequential ones.
+ */
+final class TokenSpliterator implements Spliterator<CharSequence> {
+    
+    /** Ranges shorter than this are not split further. */
+    private static final int MIN_SPLIT_SIZE = 16 * 1024;
+    
+    private final CharSequence source;
+    private final String delimiter;
+    private int index;
+    private final int end;
+    
+    TokenSpliterator(CharSequence source, int start, int end, String delimiter) {
+        this.source = source;
+        this.delimiter = delimiter;
+        this.index = start;
+        this.end = end;
+    }
+    
+    @Override
+    public boolean tryAdvance(Consumer<? super CharSequence> action) {
+        while (index < end) {
+            while (index < end && StringUtils.isDelimiter(source.charAt(index), delimiter)) {
+                index++;
+            }
+            int tokenStart = index;
+            while (index < end && !StringUtils.isDelimiter(source.charAt(index), delimiter)) {
+                index++;
+            }
+            int tokenEnd = index;
+            while (tokenStart < tokenEnd && source.charAt(tokenStart) <= ' ') {
+                tokenStart++;
+            }
+            while (tokenEnd > tokenStart && source.charAt(tokenEnd - 1) <= ' ') {
+                tokenEnd--;
+            }
+            if (tokenStart < tokenEnd && !isBlank(tokenStart, tokenEnd)) {
+                action.accept(CharBuffer.wrap(source, tokenStart, tokenEnd));
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public Spliterator<CharSequence> trySplit() {
+        int remaining = end - index;
+        if (remaining < MIN_SPLIT_SIZE) {
+            return null;
+        }
+        int cut = index + remaining / 2;
+        while (cut < end && !StringUtils.isDelimiter(source.charAt(cut), delimiter)) {
+            cut++;
+        }
+        if (cut >= end) {
+            return null;
+        }
+        TokenSpliterator prefix = new TokenSpliterator(source, index, cut, delimiter);
+        index = cut + 1;
+        return prefix;
+    }
+    
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+    
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | (source instanceof String ? IMMUTABLE : 0);
+    }
+}
@@ -0,0 +1,617 @@
+package com.example;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * {@link StringUtils} operations on UTF-8 encoded bytes, for input that arrives from the network
+ * or files, without decoding it to a {@code String}.
+ *
+ * <p>Every method gives the same answer as decoding the bytes and calling the {@code StringUtils}
+ * method of the same name. Results are offsets or slices of the input rather than new strings.
+ * The input is scanned eight bytes at a time (SWAR): a {@code long} is read and all eight bytes
+ * are tested with a few arithmetic operations, for example for a delimiter or for bytes that need
+ * HTML escaping. UTF-8 never uses ASCII values inside multi-byte sequences, so ASCII delimiters and
+ * patterns can be matched byte by byte; only non-ASCII whitespace and delimiters need a code point
+ * to be decoded.
+ *
+ * <p>Byte ranges are {@code [offset, offset + length)} of an array, or position to limit of a
+ * buffer; neither the position nor the limit is changed. Buffers are read through their backing
+ * array; the remaining bytes of direct and read-only buffers are copied to the heap first.
+ * Malformed sequences are treated like the replacement character a decoder would produce: never
+ * whitespace, never a delimiter, and written as U+FFFD by {@code escapeHtml}.
+ */
+public final class Utf8StringUtils {
+    
+    /**
+     * Receives the byte range of each token found by {@code splitAndTrim}.
+     */
+    @FunctionalInterface
+    public interface SliceConsumer {
+        
+        /**
+         * Accepts a token.
+         *
+         * @param start the index of the token's first byte
+         * @param end the index just past the token's last byte
+         */
+        void accept(int start, int end);
+    }
+    
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH = 0x8080808080808080L;
+    
+    /** Pattern and text lengths, in bytes, from which Horspool skips beat word-at-a-time scanning. */
+    private static final int HORSPOOL_MIN_PATTERN = 16;
+    private static final int HORSPOOL_MIN_TEXT = 4096;
+    
+    /** {@link Character#isWhitespace} for ASCII. */
+    private static final boolean[] ASCII_WHITESPACE = new boolean[128];
+    
+    /** UTF-8 encoded HTML entities by code point, up to the last character that has one. */
+    private static final byte[][] HTML_ESCAPES = new byte[0x2667][];
+    
+    /** UTF-8 encoding of U+FFFD, written in place of malformed sequences. */
+    private static final byte[] REPLACEMENT = "\uFFFD".getBytes(StandardCharsets.UTF_8);
+    
+    static {
+        for (int c = 0; c < ASCII_WHITESPACE.length; c++) {
+            ASCII_WHITESPACE[c] = Character.isWhitespace(c);
+        }
+        for (int c = 0; c < HTML_ESCAPES.length; c++) {
+            String escape = HtmlEscaper.escapeFor((char) c);
+            if (escape != null) {
+                HTML_ESCAPES[c] = escape.getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+    
+    private Utf8StringUtils() {
+    }
+    
+    /**
+     * Checks if a range of UTF-8 bytes is blank (empty or whitespace only).
+     *
+     * @param buf the bytes to check
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return true if the range is blank
+     * @see StringUtils#isBlank(String)
+     */
+    public static boolean isBlank(byte[] buf, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        return isBlankRange(buf, offset, offset + length);
+    }
+    
+    /**
+     * Checks if the remaining UTF-8 bytes of a buffer are blank (empty or whitespace only).
+     *
+     * @param buf the bytes to check
+     * @return true if the remaining bytes are blank
+     * @see StringUtils#isBlank(String)
+     */
+    public static boolean isBlank(ByteBuffer buf) {
+        if (buf.hasArray()) {
+            int from = buf.arrayOffset() + buf.position();
+            return isBlankRange(buf.array(), from, from + buf.remaining());
+        }
+        return isBlankRange(copyOf(buf), 0, buf.remaining());
+    }
+    
+    private static boolean isBlankRange(byte[] buf, int start, int end) {
+        int i = start;
+        // Skip whole words of ASCII whitespace
+        while (i + Long.BYTES <= end) {
+            long word = (long) LONGS.get(buf, i);
+            if ((word & HIGH) != 0 || asciiWhitespace(word) != HIGH) {
+                break;
+            }
+            i += Long.BYTES;
+        }
+        while (i < end) {
+            int b = buf[i];
+            if (b >= 0) {
+                if (!ASCII_WHITESPACE[b]) {
+                    return false;
+                }
+                i++;
+            } else {
+                int cp = codePointAt(buf, i, end);
+                if (cp < 0 || !Character.isWhitespace(cp)) {
+                    return false;
+                }
+                i += sequenceLength(cp);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Splits a range of UTF-8 bytes and trims each part, reporting the tokens as byte ranges.
+     *
+     * @param buf the bytes to split
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @param delimiter the separator characters to split on, or null to split on whitespace
+     * @param tokens receives the range of each trimmed, non-blank token, in input order
+     * @return the number of tokens
+     * @throws IllegalArgumentException if the delimiter contains surrogates
+     * @see StringUtils#splitAndTrim(String, String)
+     */
+    public static int splitAndTrim(byte[] buf, int offset, int length, String delimiter, SliceConsumer tokens) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        return splitAndTrimRange(buf, offset, offset + length, delimiter, tokens);
+    }
+    
+    /**
+     * Splits the remaining UTF-8 bytes of a buffer and trims each part, reporting the tokens as
+     * absolute byte ranges of the buffer.
+     *
+     * @param buf the bytes to split
+     * @param delimiter the separator characters to split on, or null to split on whitespace
+     * @param tokens receives the range of each trimmed, non-blank token, in input order
+     * @return the number of tokens
+     * @throws IllegalArgumentException if the delimiter contains surrogates
+     * @see StringUtils#splitAndTrim(String, String)
+     */
+    public static int splitAndTrim(ByteBuffer buf, String delimiter, SliceConsumer tokens) {
+        if (buf.hasArray()) {
+            int shift = buf.arrayOffset();
+            return splitAndTrimRange(buf.array(), shift + buf.position(), shift + buf.limit(), delimiter,
+                    (start, end) -> tokens.accept(start - shift, end - shift));
+        }
+        int shift = buf.position();
+        return splitAndTrimRange(copyOf(buf), 0, buf.remaining(), delimiter,
+                (start, end) -> tokens.accept(start + shift, end + shift));
+    }
+    
+    /**
+     * Splits the remaining UTF-8 bytes of a buffer and trims each part.
+     *
+     * @param buf the bytes to split
+     * @param delimiter the separator characters to split on, or null to split on whitespace
+     * @return the trimmed, non-blank tokens as slices sharing the buffer's content
+     * @throws IllegalArgumentException if the delimiter contains surrogates
+     * @see StringUtils#splitAndTrim(String, String)
+     */
+    public static List<ByteBuffer> splitAndTrim(ByteBuffer buf, String delimiter) {
+        List<ByteBuffer> slices = new ArrayList<>();
+        splitAndTrim(buf, delimiter, (start, end) -> slices.add(buf.slice(start, end - start)));
+        return slices;
+    }
+    
+    private static int splitAndTrimRange(byte[] buf, int from, int end, String delimiter, SliceConsumer tokens) {
+        Delimiters delimiters = new Delimiters(delimiter);
+        int count = 0;
+        int i = from;
+        while (i < end) {
+            while (i < end && delimiters.isDelimiterAt(buf, i, end)) {
+                i += delimiters.lastLength;
+            }
+            int start = i;
+            i = delimiters.indexOfDelimiter(buf, i, end);
+            int tokenEnd = i;
+            while (start < tokenEnd && (buf[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            while (tokenEnd > start && (buf[tokenEnd - 1] & 0xFF) <= ' ') {
+                tokenEnd--;
+            }
+            // After trimming, a token starting with an ASCII byte cannot be blank
+            if (start < tokenEnd && (buf[start] >= 0 || !isBlankRange(buf, start, tokenEnd))) {
+                tokens.accept(start, tokenEnd);
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Counts the non-overlapping occurrences of a substring in a range of UTF-8 bytes.
+     *
+     * @param buf the bytes to search in
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @param sub the substring to count
+     * @return the number of occurrences
+     * @see StringUtils#countOccurrences(String, String)
+     */
+    public static int countOccurrences(byte[] buf, int offset, int length, String sub) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        return countOccurrencesRange(buf, offset, offset + length, sub);
+    }
+    
+    /**
+     * Counts the non-overlapping occurrences of a substring in the remaining UTF-8 bytes of a buffer.
+     *
+     * @param buf the bytes to search in
+     * @param sub the substring to count
+     * @return the number of occurrences
+     * @see StringUtils#countOccurrences(String, String)
+     */
+    public static int countOccurrences(ByteBuffer buf, String sub) {
+        if (buf.hasArray()) {
+            int from = buf.arrayOffset() + buf.position();
+            return countOccurrencesRange(buf.array(), from, from + buf.remaining(), sub);
+        }
+        return countOccurrencesRange(copyOf(buf), 0, buf.remaining(), sub);
+    }
+    
+    private static int countOccurrencesRange(byte[] buf, int from, int end, String sub) {
+        if (StringUtils.isBlank(sub) || isBlankRange(buf, from, end)) {
+            return 0;
+        }
+        // UTF-8 is self-synchronizing: an encoded match can only start at a character boundary
+        byte[] pattern = sub.getBytes(StandardCharsets.UTF_8);
+        int m = pattern.length;
+        int first = pattern[0] & 0xFF;
+        int lastByte = pattern[m - 1] & 0xFF;
+        if (m >= HORSPOOL_MIN_PATTERN && end - from >= HORSPOOL_MIN_TEXT) {
+            return countHorspool(buf, from, end, pattern);
+        }
+        int count = 0;
+        int last = end - m;
+        int i = from;
+        // Candidates have both the first and the last pattern byte in place, tested a word at a time
+        while (i + Long.BYTES - 1 <= last) {
+            long candidates = matches((long) LONGS.get(buf, i), first)
+                    & matches((long) LONGS.get(buf, i + m - 1), lastByte);
+            int next = i + Long.BYTES;
+            while (candidates != 0) {
+                int at = i + (Long.numberOfTrailingZeros(candidates) >>> 3);
+                candidates &= candidates - 1;
+                if (regionMatches(buf, at, pattern)) {
+                    count++;
+                    next = at + m;
+                    // Matches do not overlap
+                    candidates = next - i >= Long.BYTES ? 0 : candidates & (-1L << ((next - i) << 3));
+                }
+            }
+            i = next;
+        }
+        for (; i <= last; i++) {
+            if (regionMatches(buf, i, pattern)) {
+                count++;
+                i += m - 1;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Counts with {@link HorspoolMatcher}'s bad-character skips, which advance further than a word
+     * at a time once the pattern is long.
+     */
+    private static int countHorspool(byte[] buf, int from, int end, byte[] pattern) {
+        int m = pattern.length;
+        int[] shifts = new int[256];
+        Arrays.fill(shifts, m);
+        for (int j = 0; j < m - 1; j++) {
+            shifts[pattern[j] & 0xFF] = m - 1 - j;
+        }
+        byte lastByte = pattern[m - 1];
+        int count = 0;
+        for (int i = from, last = end - m; i <= last; ) {
+            byte b = buf[i + m - 1];
+            if (b == lastByte && regionMatches(buf, i, pattern)) {
+                count++;
+                i += m;
+            } else {
+                i += shifts[b & 0xFF];
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Escapes a range of UTF-8 bytes using HTML 4.0 entities. Malformed sequences are replaced
+     * with U+FFFD, as decoding would replace them.
+     *
+     * @param buf the bytes to escape
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the escaped UTF-8 bytes, or a buffer wrapping the input range when nothing needed escaping
+     * @see StringUtils#escapeHtml(String)
+     */
+    public static ByteBuffer escapeHtml(byte[] buf, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, buf.length);
+        ByteBuffer escaped = escapeHtmlRange(buf, offset, offset + length);
+        return escaped != null ? escaped : ByteBuffer.wrap(buf, offset, length);
+    }
+    
+    /**
+     * Escapes the remaining UTF-8 bytes of a buffer using HTML 4.0 entities. Malformed sequences
+     * are replaced with U+FFFD, as decoding would replace them.
+     *
+     * @param buf the bytes to escape
+     * @return the escaped UTF-8 bytes, or a slice of the input when nothing needed escaping
+     * @see StringUtils#escapeHtml(String)
+     */
+    public static ByteBuffer escapeHtml(ByteBuffer buf) {
+        ByteBuffer escaped;
+        if (buf.hasArray()) {
+            int from = buf.arrayOffset() + buf.position();
+            escaped = escapeHtmlRange(buf.array(), from, from + buf.remaining());
+        } else {
+            escaped = escapeHtmlRange(copyOf(buf), 0, buf.remaining());
+        }
+        return escaped != null ? escaped : buf.slice();
+    }
+    
+    /**
+     * Returns the escaped bytes, or null when nothing needs escaping.
+     */
+    private static ByteBuffer escapeHtmlRange(byte[] buf, int from, int end) {
+        int i = nextToEscape(buf, from, end);
+        if (i == end || isBlankRange(buf, from, end)) {
+            return null;
+        }
+        byte[] out = new byte[(end - from) + ((end - from) >> 3) + 16];
+        int n = copy(buf, from, i, out, 0);
+        int run = i;
+        while (i < end) {
+            int cp;
+            int length;
+            int b = buf[i];
+            if (b >= 0) {
+                cp = b;
+                length = 1;
+            } else {
+                cp = codePointAt(buf, i, end);
+                length = cp < 0 ? malformedLength(buf, i, end) : sequenceLength(cp);
+            }
+            byte[] escape = cp < 0 ? REPLACEMENT : cp < HTML_ESCAPES.length ? HTML_ESCAPES[cp] : null;
+            if (escape != null) {
+                out = ensureCapacity(out, n + (i - run) + escape.length);
+                n = copy(buf, run, i, out, n);
+                System.arraycopy(escape, 0, out, n, escape.length);
+                n += escape.length;
+                run = i + length;
+            }
+            i = nextToEscape(buf, i + length, end);
+        }
+        out = ensureCapacity(out, n + (end - run));
+        n = copy(buf, run, end, out, n);
+        return ByteBuffer.wrap(out, 0, n);
+    }
+    
+    /**
+     * Returns the index of the first byte that may start a character with an HTML entity:
+     * one of {@code " & < >}, or any non-ASCII byte.
+     */
+    private static int nextToEscape(byte[] buf, int from, int end) {
+        int i = from;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long word = (long) LONGS.get(buf, i);
+            long found = (word & HIGH) | matches(word, '"') | matches(word, '&') | matches(word, '<') | matches(word, '>');
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < end; i++) {
+            int b = buf[i];
+            if (b < 0 || b == '"' || b == '&' || b == '<' || b == '>') {
+                return i;
+            }
+        }
+        return end;
+    }
+    
+    /**
+     * Returns the index of the first occurrence of a byte in {@code [from, end)}, or -1.
+     */
+    private static int indexOf(byte[] buf, int from, int end, byte b) {
+        int i = from;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long found = matches((long) LONGS.get(buf, i), b & 0xFF);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < end; i++) {
+            if (buf[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Sets the high bit of each byte of {@code word} equal to {@code b}. Bytes above the first
+     * match may be flagged spuriously, so only the lowest flag is reliable.
+     */
+    private static long matches(long word, int b) {
+        long x = word ^ (ONES * b);
+        return (x - ONES) & ~x & HIGH;
+    }
+    
+    /**
+     * Sets the high bit of each byte of an all-ASCII {@code word} that is whitespace:
+     * {@code 0x09-0x0D} or {@code 0x1C-0x20}. Adding {@code 0x80 - lo} to a 7-bit byte sets its
+     * high bit exactly when the byte is at least {@code lo}, without carrying into the next byte.
+     */
+    private static long asciiWhitespace(long word) {
+        long atLeastTab = word + ONES * (0x80 - 0x09);
+        long aboveCarriageReturn = word + ONES * (0x7F - 0x0D);
+        long atLeastFileSeparator = word + ONES * (0x80 - 0x1C);
+        long aboveSpace = word + ONES * (0x7F - 0x20);
+        return ((atLeastTab & ~aboveCarriageReturn) | (atLeastFileSeparator & ~aboveSpace)) & HIGH;
+    }
+    
+    private static boolean regionMatches(byte[] buf, int offset, byte[] pattern) {
+        for (int k = 0; k < pattern.length; k++) {
+            if (buf[offset + k] != pattern[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Decodes the code point starting at {@code i}, rejecting what {@link StandardCharsets#UTF_8}
+     * rejects: stray continuation bytes, overlong forms, surrogates, values above U+10FFFF and
+     * sequences cut short by {@code end}.
+     *
+     * @return the code point, or -1 if the sequence is malformed
+     */
+    static int codePointAt(byte[] buf, int i, int end) {
+        int b0 = buf[i] & 0xFF;
+        if (b0 < 0x80) {
+            return b0;
+        }
+        if (b0 < 0xC2 || b0 > 0xF4) {
+            return -1;
+        }
+        int length = b0 < 0xE0 ? 2 : b0 < 0xF0 ? 3 : 4;
+        if (i + length > end) {
+            return -1;
+        }
+        int cp = b0 & (0x7F >> length);
+        for (int k = 1; k < length; k++) {
+            int b = buf[i + k];
+            if ((b & 0xC0) != 0x80) {
+                return -1;
+            }
+            cp = (cp << 6) | (b & 0x3F);
+        }
+        if (length == 3 && (cp < 0x800 || Character.isSurrogate((char) cp))
+                || length == 4 && (cp < 0x10000 || cp > Character.MAX_CODE_POINT)) {
+            return -1;
+        }
+        return cp;
+    }
+    
+    /**
+     * Returns the length of the malformed sequence at {@code i}: its longest prefix that a valid
+     * sequence could start with, at least one byte. {@link StandardCharsets#UTF_8} replaces each
+     * such prefix with one U+FFFD.
+     */
+    static int malformedLength(byte[] buf, int i, int end) {
+        int b0 = buf[i] & 0xFF;
+        if (b0 < 0xC2 || b0 > 0xF4) {
+            return 1;
+        }
+        int length = b0 < 0xE0 ? 2 : b0 < 0xF0 ? 3 : 4;
+        int k = 1;
+        for (; k < length && i + k < end; k++) {
+            int b = buf[i + k] & 0xFF;
+            // As in the JDK's decoder, the second byte's range excludes overlong forms and values
+            // above U+10FFFF; an encoded surrogate is one malformed sequence of three bytes
+            int min = k == 1 && b0 == 0xE0 ? 0xA0 : k == 1 && b0 == 0xF0 ? 0x90 : 0x80;
+            int max = k == 1 && b0 == 0xF4 ? 0x8F : 0xBF;
+            if (b < min || b > max) {
+                break;
+            }
+        }
+        return k;
+    }
+    
+    private static int sequenceLength(int cp) {
+        return cp < 0x80 ? 1 : cp < 0x800 ? 2 : cp < 0x10000 ? 3 : 4;
+    }
+    
+    private static int copy(byte[] buf, int from, int to, byte[] out, int n) {
+        System.arraycopy(buf, from, out, n, to - from);
+        return n + (to - from);
+    }
+    
+    /**
+     * Copies the remaining bytes of a buffer that has no accessible array.
+     */
+    private static byte[] copyOf(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.remaining()];
+        buf.get(buf.position(), bytes);
+        return bytes;
+    }
+    
+    private static byte[] ensureCapacity(byte[] out, int required) {
+        return required <= out.length ? out : Arrays.copyOf(out, Math.max(required, out.length * 2));
+    }
+    
+    /**
+     * The separator set of one {@code splitAndTrim} call.
+     */
+    private static final class Delimiters {
+        
+        /** The delimiter characters, or null for whitespace. */
+        private final String chars;
+        private final boolean[] ascii = new boolean[128];
+        private final boolean anyNonAscii;
+        /** The only delimiter, when it is a single ASCII character, or -1. */
+        private final int single;
+        /** Byte length of the delimiter found by the last {@link #isDelimiterAt} call. */
+        int lastLength;
+        
+        Delimiters(String chars) {
+            this.chars = chars;
+            if (chars == null) {
+                System.arraycopy(ASCII_WHITESPACE, 0, ascii, 0, ascii.length);
+                anyNonAscii = true;
+                single = -1;
+                return;
+            }
+            boolean nonAscii = false;
+            for (int k = 0; k < chars.length(); k++) {
+                char c = chars.charAt(k);
+                if (Character.isSurrogate(c)) {
+                    throw new IllegalArgumentException("Delimiters must not contain surrogates: " + chars);
+                }
+                if (c < 0x80) {
+                    ascii[c] = true;
+                } else {
+                    nonAscii = true;
+                }
+            }
+            anyNonAscii = nonAscii;
+            single = chars.length() == 1 && chars.charAt(0) < 0x80 ? chars.charAt(0) : -1;
+        }
+        
+        boolean isDelimiterAt(byte[] buf, int i, int end) {
+            int b = buf[i];
+            if (b >= 0) {
+                lastLength = 1;
+                return ascii[b];
+            }
+            if (!anyNonAscii) {
+                return false;
+            }
+            int cp = codePointAt(buf, i, end);
+            if (cp < 0) {
+                return false;
+            }
+            lastLength = sequenceLength(cp);
+            return chars == null ? Character.isWhitespace(cp) : cp < 0x10000 && chars.indexOf(cp) >= 0;
+        }
+        
+        /**
+         * Returns the index of the first delimiter in {@code [from, end)}, or {@code end}.
+         */
+        int indexOfDelimiter(byte[] buf, int from, int end) {
+            if (single >= 0) {
+                int i = indexOf(buf, from, end, (byte) single);
+                return i < 0 ? end : i;
+            }
+            int i = from;
+            while (i < end && !isDelimiterAt(buf, i, end)) {
+                int b = buf[i];
+                i += b >= 0 || !anyNonAscii ? 1 : lengthAt(buf, i, end);
+            }
+            return i;
+        }
+        
+        private static int lengthAt(byte[] buf, int i, int end) {
+            int cp = codePointAt(buf, i, end);
+            return cp < 0 ? 1 : sequenceLength(cp);
+        }
+    }
+}
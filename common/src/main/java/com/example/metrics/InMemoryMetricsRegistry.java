@@ -0,0 +1,69 @@
+package com.example.metrics;
+
+import com.example.JsonCodecs;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link MetricsRegistry} keeping counters and latency histograms in memory.
+ * Recording only touches {@link LongAdder}s, so concurrent callers do not contend.
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+    
+    private final ConcurrentMap<String, Recorder> methods = new ConcurrentHashMap<>();
+    
+    @Override
+    public MethodMetrics method(String name) {
+        return methods.computeIfAbsent(name, key -> new Recorder());
+    }
+    
+    @Override
+    public Map<String, MethodSnapshot> snapshot() {
+        Map<String, MethodSnapshot> result = new TreeMap<>();
+        methods.forEach((name, recorder) -> result.put(name, recorder.snapshot()));
+        return result;
+    }
+    
+    @Override
+    public String toJson() {
+        try {
+            return JsonCodecs.writer(Map.class).writeValueAsString(snapshot());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("JSON processing failed", e);
+        }
+    }
+    
+    private static final class Recorder implements MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final LongAdder bytesOut = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        
+        @Override
+        public void recordSuccess(long latencyNanos, long in, long out) {
+            calls.increment();
+            bytesIn.add(in);
+            bytesOut.add(out);
+            latency.record(latencyNanos);
+        }
+        
+        @Override
+        public void recordError(long latencyNanos) {
+            calls.increment();
+            errors.increment();
+            latency.record(latencyNanos);
+        }
+        
+        MethodSnapshot snapshot() {
+            return new MethodSnapshot(calls.sum(), errors.sum(), bytesIn.sum(), bytesOut.sum(),
+                    latency.getValueAtPercentile(50), latency.getValueAtPercentile(90),
+                    latency.getValueAtPercentile(99), latency.getValueAtPercentile(99.9), latency.getMax());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.metrics;
+
+/**
+ * Recording side of the metrics for one method. Implementations must be thread-safe.
+ */
+public interface MethodMetrics {
+    
+    /**
+     * Metrics that discard everything.
+     */
+    MethodMetrics NOOP = new MethodMetrics() {
+        @Override
+        public void recordSuccess(long latencyNanos, long bytesIn, long bytesOut) {
+        }
+        
+        @Override
+        public void recordError(long latencyNanos) {
+        }
+    };
+    
+    /**
+     * Records a completed call.
+     * 
+     * @param latencyNanos the call duration in nanoseconds
+     * @param bytesIn the size of the input payload
+     * @param bytesOut the size of the output payload
+     */
+    void recordSuccess(long latencyNanos, long bytesIn, long bytesOut);
+    
+    /**
+     * Records a call that failed with an exception.
+     * 
+     * @param latencyNanos the call duration in nanoseconds
+     */
+    void recordError(long latencyNanos);
+}
@@ -0,0 +1,19 @@
+package com.example.metrics;
+
+/**
+ * Point-in-time view of the metrics of one method. Latencies are in nanoseconds and are
+ * the upper bound of the histogram bucket the percentile falls in.
+ *
+ * @param calls the number of calls, including failed ones
+ * @param errors the number of failed calls
+ * @param bytesIn the total size of all inputs
+ * @param bytesOut the total size of all outputs
+ * @param p50 the median latency
+ * @param p90 the 90th percentile latency
+ * @param p99 the 99th percentile latency
+ * @param p999 the 99.9th percentile latency
+ * @param max the highest latency recorded
+ */
+public record MethodSnapshot(long calls, long errors, long bytesIn, long bytesOut,
+                             long p50, long p90, long p99, long p999, long max) {
+}
@@ -0,0 +1,55 @@
+package com.example.metrics;
+
+import java.util.Map;
+
+/**
+ * Source of per-method metrics for the instrumented hot paths.
+ * 
+ * <p>Components look up their {@link MethodMetrics} once at construction and record into them on
+ * every call, so implementations only need to make recording cheap and contention-free.
+ * {@link #NOOP} disables instrumentation; {@link InMemoryMetricsRegistry} keeps everything in memory.
+ */
+public interface MetricsRegistry {
+    
+    /**
+     * Registry that records nothing. Components treat it as "metrics disabled".
+     */
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        @Override
+        public MethodMetrics method(String name) {
+            return MethodMetrics.NOOP;
+        }
+        
+        @Override
+        public Map<String, MethodSnapshot> snapshot() {
+            return Map.of();
+        }
+        
+        @Override
+        public String toJson() {
+            return "{}";
+        }
+    };
+    
+    /**
+     * Returns the metrics for a method, creating them on first use.
+     * 
+     * @param name the method name, for example {@code DataProcessor.processData}
+     * @return the metrics to record into
+     */
+    MethodMetrics method(String name);
+    
+    /**
+     * Takes a point-in-time snapshot of every method recorded so far.
+     * 
+     * @return snapshots keyed by method name
+     */
+    Map<String, MethodSnapshot> snapshot();
+    
+    /**
+     * Serializes {@link #snapshot()} as a JSON object keyed by method name.
+     * 
+     * @return the snapshot as JSON
+     */
+    String toJson();
+}
@@ -0,0 +1,67 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CachedClock.
+ */
+class CachedClockTest {
+    
+    @Test
+    void testTracksSourceClock() throws Exception {
+        AtomicLong now = new AtomicLong(1_000);
+        Clock source = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+            
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+            
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+        
+        try (CachedClock clock = new CachedClock(source, Duration.ofMillis(1))) {
+            assertEquals(1_000, clock.millis());
+            now.set(2_000);
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (clock.millis() != 2_000 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(2_000, clock.millis());
+            assertEquals(Instant.ofEpochMilli(2_000), clock.instant());
+        }
+    }
+    
+    @Test
+    void testWithZoneSharesTicker() {
+        try (CachedClock clock = new CachedClock(Duration.ofMillis(10))) {
+            Clock zoned = clock.withZone(ZoneId.of("Europe/Paris"));
+            
+            assertEquals(ZoneId.of("Europe/Paris"), zoned.getZone());
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+            assertTrue(Math.abs(zoned.millis() - clock.millis()) <= 10);
+            assertTrue(Math.abs(System.currentTimeMillis() - clock.millis()) < 1_000);
+        }
+    }
+    
+    @Test
+    void testRejectsNonPositiveResolution() {
+        assertThrows(IllegalArgumentException.class, () -> new CachedClock(Duration.ZERO));
+    }
+}
@@ -2,8 +2,30 @@ package com.example;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import com.example.metrics.MetricsRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,4 +84,391 @@ class DataProcessorTest {
             dataProcessor.parseData(invalidJson);
         });
     }
+    
+    @Test
+    void testProcessDataMatchesMapSerialization() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("k", List.of(1, 2.5, "x"));
+        List<Object> values = Arrays.asList("plain", "caf\u00e9 \"quoted\" <tag>", 42, 3.25, true, null, nested);
+        
+        for (Object value : values) {
+            String result = dataProcessor.processData("n\u00e4me", value);
+            Object timestamp = dataProcessor.parseData(result).get("timestamp");
+            
+            Map<String, Object> expected = new HashMap<>();
+            expected.put("name", "n\u00e4me");
+            expected.put("value", value);
+            expected.put("timestamp", ((Number) timestamp).longValue());
+            assertEquals(mapper.writeValueAsString(expected), result);
+        }
+    }
+    
+    @Test
+    void testProcessDataToOutputStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dataProcessor.processData("stream", "\u00fcber", out);
+        
+        Map<String, Object> parsed = dataProcessor.parseData(out.toString(StandardCharsets.UTF_8));
+        assertEquals("stream", parsed.get("name"));
+        assertEquals("\u00fcber", parsed.get("value"));
+    }
+    
+    @Test
+    void testProcessDataToWriter() {
+        StringWriter out = new StringWriter();
+        dataProcessor.processData("writer", 7, out);
+        
+        Map<String, Object> parsed = dataProcessor.parseData(out.toString());
+        assertEquals("writer", parsed.get("name"));
+        assertEquals(7, parsed.get("value"));
+    }
+    
+    @Test
+    void testProcessDataToByteBuffer() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put((byte) ' ');
+        int written = dataProcessor.processData("buffer", "value", buffer);
+        
+        assertEquals(1 + written, buffer.position());
+        String json = new String(buffer.array(), 1, written, StandardCharsets.UTF_8);
+        assertEquals("buffer", dataProcessor.parseData(json).get("name"));
+    }
+    
+    @Test
+    void testBinaryFormatsRoundTripLikeJson() {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("list", List.of(1, 2.5, "three", true));
+        nested.put("none", null);
+        List<Object> values = Arrays.asList("text", "ünïcödé ✓", 42, 1L << 40, 3.25, -0.5, true, null,
+                List.of(), nested, "x".repeat(10_000));
+        
+        for (Object value : values) {
+            Map<String, Object> expected = dataProcessor.parseData(dataProcessor.processData("round", value));
+            expected.remove("timestamp");
+            for (DataFormat format : DataFormat.values()) {
+                byte[] encoded = dataProcessor.processData("round", value, format);
+                Map<String, Object> parsed = dataProcessor.parseData(encoded, format);
+                
+                assertTrue(parsed.remove("timestamp") instanceof Long, format.name());
+                assertEquals(expected, parsed, format + " " + value);
+            }
+        }
+    }
+    
+    @Test
+    void testJsonFormatMatchesTextOutput() {
+        byte[] encoded = dataProcessor.processData("bytes", "value", DataFormat.JSON);
+        
+        String json = new String(encoded, StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("{\"name\":\"bytes\",\"value\":\"value\",\"timestamp\":"));
+        assertEquals("bytes", dataProcessor.parseData(json).get("name"));
+    }
+    
+    @Test
+    void testBinaryFormatsWithByteBuffers() {
+        for (DataFormat format : DataFormat.values()) {
+            for (ByteBuffer buffer : List.of(ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256))) {
+                buffer.put((byte) 0);
+                int written = dataProcessor.processData("buffer", List.of("a", "b"), buffer, format);
+                
+                assertEquals(1 + written, buffer.position());
+                buffer.flip().position(1);
+                Map<String, Object> parsed = dataProcessor.parseData(buffer, format);
+                assertEquals(List.of("a", "b"), parsed.get("value"), format.name());
+                assertFalse(buffer.hasRemaining());
+            }
+        }
+    }
+    
+    @Test
+    void testBinaryFormatsAreSmallerForRepeatedKeys() {
+        List<Map<String, Object>> value = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            value.add(Map.of("id", i, "label", "item-" + i, "active", i % 2 == 0));
+        }
+        int json = dataProcessor.processData("size", value, DataFormat.JSON).length;
+        
+        assertTrue(dataProcessor.processData("size", value, DataFormat.SMILE).length < json);
+        assertTrue(dataProcessor.processData("size", value, DataFormat.CBOR).length < json);
+    }
+    
+    @Test
+    void testInvalidBinaryParsing() {
+        byte[] garbage = {(byte) 0xff, 0x01, 0x02};
+        
+        for (DataFormat format : DataFormat.values()) {
+            assertThrows(RuntimeException.class, () -> dataProcessor.parseData(garbage, format), format.name());
+        }
+    }
+    
+    @Test
+    void testFixedClockGivesDeterministicOutput() {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1_700_000_000_000L), ZoneOffset.UTC);
+        DataProcessor processor = new DataProcessor(MetricsRegistry.NOOP, clock);
+        
+        String json = processor.processData("fixed", "value");
+        
+        assertEquals("{\"name\":\"fixed\",\"value\":\"value\",\"timestamp\":1700000000000}", json);
+        assertEquals(json, processor.processData("fixed", "value"));
+        assertEquals(1_700_000_000_000L, processor.parseRecord(json).timestamp());
+    }
+    
+    @Test
+    void testTimestampCanBeOmitted() {
+        DataProcessor processor = new DataProcessor(MetricsRegistry.NOOP, null);
+        
+        assertEquals("{\"name\":\"none\",\"value\":1}", processor.processData("none", 1));
+        assertEquals("[{\"name\":\"a\",\"value\":1},{\"name\":\"b\",\"value\":2}]",
+                processor.processBatch(List.of(Map.entry("a", 1), Map.entry("b", 2))));
+        assertArrayEquals(processor.processData("none", 1, DataFormat.CBOR),
+                processor.processData("none", 1, DataFormat.CBOR));
+        assertEquals(0L, processor.parseRecord(processor.processData("none", 1)).timestamp());
+    }
+    
+    @Test
+    void testTimestampCanBeSupplied() {
+        assertEquals("{\"name\":\"given\",\"value\":true,\"timestamp\":42}",
+                dataProcessor.processData("given", true, 42L));
+        assertEquals("{\"name\":\"min\",\"value\":1,\"timestamp\":" + Long.MIN_VALUE + "}",
+                new DataProcessor(MetricsRegistry.NOOP, null).processData("min", 1, Long.MIN_VALUE));
+    }
+    
+    @Test
+    void testUpdateDataSetsAndRemovesFields() {
+        String json = "{\"name\":\"n\",\"value\":{\"big\":[1,2,{\"x\":\"y\"}]},\"timestamp\":1,\"extra\":true}";
+        
+        String updated = dataProcessor.updateData(json, new RecordUpdate()
+                .set("timestamp", 42L)
+                .remove("extra")
+                .set("added", List.of("a")));
+        
+        assertEquals("{\"name\":\"n\",\"value\":{\"big\":[1,2,{\"x\":\"y\"}]},\"timestamp\":42,\"added\":[\"a\"]}",
+                updated);
+        assertEquals(json, dataProcessor.updateData(json, new RecordUpdate()));
+    }
+    
+    @Test
+    void testUpdateDataMergePatch() {
+        String json = "{\"name\":\"n\",\"value\":{\"a\":1,\"b\":{\"c\":2,\"d\":3}},\"timestamp\":1}";
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("d", null);
+        inner.put("e", 4);
+        Map<String, Object> value = new HashMap<>();
+        value.put("a", null);
+        value.put("b", inner);
+        Map<String, Object> added = new HashMap<>();
+        added.put("keep", 1);
+        added.put("drop", null);
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("value", value);
+        patch.put("timestamp", null);
+        patch.put("added", added);
+        
+        String updated = dataProcessor.updateData(json, new RecordUpdate().merge(patch));
+        
+        Map<String, Object> parsed = dataProcessor.parseData(updated);
+        assertEquals(Map.of("b", Map.of("c", 2, "e", 4)), parsed.get("value"));
+        assertEquals(Map.of("keep", 1), parsed.get("added"));
+        assertFalse(parsed.containsKey("timestamp"));
+        assertEquals("n", parsed.get("name"));
+    }
+    
+    @Test
+    void testUpdateDataMatchesReserialization() {
+        String value = "x".repeat(100_000);
+        String json = dataProcessor.processData("large", value, 1L);
+        
+        assertEquals(dataProcessor.processData("large", value, 2L),
+                dataProcessor.updateData(json, new RecordUpdate().set("timestamp", 2L)));
+        for (DataFormat format : DataFormat.values()) {
+            byte[] encoded = dataProcessor.processData("large", value, format);
+            Map<String, Object> parsed = dataProcessor.parseData(
+                    dataProcessor.updateData(encoded, format, new RecordUpdate().set("name", "renamed")), format);
+            assertEquals("renamed", parsed.get("name"), format.name());
+            assertEquals(value, parsed.get("value"), format.name());
+        }
+    }
+    
+    @Test
+    void testUpdateDataCopiesUntouchedValuesVerbatim() {
+        String json = "{ \"name\" : \"a\\\"b\\u00e9\" ,\n  \"value\" : [1, {\"k\": 2}] , \"timestamp\":1 }";
+        
+        String updated = dataProcessor.updateData(json, new RecordUpdate().set("timestamp", 5L));
+        
+        assertEquals("{\"name\":\"a\\\"b\\u00e9\",\"value\":[1, {\"k\": 2}],\"timestamp\":5}", updated);
+        assertEquals("a\"b\u00e9", dataProcessor.parseData(updated).get("name"));
+    }
+    
+    @Test
+    void testUpdateDataRejectsNonObjects() {
+        assertThrows(RuntimeException.class, () -> dataProcessor.updateData("[1,2]", new RecordUpdate()));
+        assertThrows(RuntimeException.class, () -> dataProcessor.updateData("{\"a\":1} {}", new RecordUpdate()));
+        assertThrows(RuntimeException.class, () -> dataProcessor.updateData("{\"a\":", new RecordUpdate()));
+    }
+    
+    @Test
+    void testProcessBatchAsJsonArray() {
+        String json = dataProcessor.processBatch(List.of(Map.entry("a", 1), Map.entry("b", "two")));
+        
+        assertTrue(json.startsWith("[{\"name\":\"a\",\"value\":1,\"timestamp\":"));
+        List<Map<String, Object>> parsed = dataProcessor.parseBatch(json);
+        assertEquals(2, parsed.size());
+        assertEquals("b", parsed.get(1).get("name"));
+        assertEquals("two", parsed.get(1).get("value"));
+    }
+    
+    @Test
+    void testProcessBatchAsNdjson() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = dataProcessor.processBatch(
+                List.of(Map.entry("a", 1), Map.entry("b", 2), Map.entry("c", 3)).iterator(),
+                out, BatchFormat.NDJSON);
+        
+        assertEquals(3, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(4, lines.length);
+        assertEquals("", lines[3]);
+        assertEquals("c", dataProcessor.parseData(lines[2]).get("name"));
+    }
+    
+    @Test
+    void testParseBatchFromStream() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dataProcessor.processBatch(List.of(Map.entry("x", 1), Map.entry("y", 2)).iterator(),
+                out, BatchFormat.NDJSON);
+        
+        List<Object> names = new ArrayList<>();
+        long count = dataProcessor.parseBatch(new ByteArrayInputStream(out.toByteArray()),
+                record -> names.add(record.get("name")));
+        
+        assertEquals(2, count);
+        assertEquals(List.of("x", "y"), names);
+    }
+    
+    @Test
+    void testParseBatchEmptyInput() {
+        assertTrue(dataProcessor.parseBatch("").isEmpty());
+        assertTrue(dataProcessor.parseBatch("[]").isEmpty());
+    }
+    
+    @Test
+    void testParseBatchTruncatedArray() {
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseBatch("[{\"name\":\"a\"},"));
+    }
+    
+    @Test
+    void testParseRecord() {
+        String json = "{\"name\":\"test\",\"value\":\"value\",\"timestamp\":1234567890}";
+        
+        ProcessedRecord record = dataProcessor.parseRecord(json);
+        
+        assertEquals(new ProcessedRecord("test", "value", 1234567890L), record);
+    }
+    
+    @Test
+    void testParseDataWithType() {
+        String json = dataProcessor.processData("typed", List.of(1, 2));
+        
+        ProcessedRecord record = dataProcessor.parseData(json, ProcessedRecord.class);
+        
+        assertEquals("typed", record.name());
+        assertEquals(List.of(1, 2), record.value());
+        assertTrue(record.timestamp() > 0);
+        assertEquals(record, dataProcessor.parseData(json, ProcessedRecord.class));
+    }
+    
+    @Test
+    void testInvalidJsonTypedParsing() {
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseRecord("{ invalid json }"));
+    }
+    
+    @Test
+    void testParseFileNdjsonAndArray(@TempDir Path dir) throws Exception {
+        List<Map.Entry<String, Object>> records = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            records.add(Map.entry("name-" + i, i));
+        }
+        Path ndjson = dir.resolve("records.ndjson");
+        Path array = dir.resolve("records.json");
+        try (OutputStream out = Files.newOutputStream(ndjson)) {
+            dataProcessor.processBatch(records.iterator(), out, BatchFormat.NDJSON);
+        }
+        Files.writeString(array, dataProcessor.processBatch(records));
+        
+        for (Path file : List.of(ndjson, array)) {
+            List<Object> names = new ArrayList<>();
+            assertEquals(1000, dataProcessor.parseFile(file, record -> names.add(record.get("name"))));
+            assertEquals("name-999", names.get(999));
+            
+            List<ProcessedRecord> typed = new ArrayList<>();
+            dataProcessor.parseFile(file, ProcessedRecord.class, typed::add);
+            assertEquals(500, typed.get(500).value());
+        }
+    }
+    
+    @Test
+    void testStreamFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("records.ndjson");
+        Files.writeString(file, "{\"name\":\"a\",\"value\":1,\"timestamp\":1}\n{\"name\":\"b\",\"value\":2,\"timestamp\":2}\n");
+        
+        try (Stream<Map<String, Object>> stream = dataProcessor.streamFile(file)) {
+            assertEquals(List.of("a", "b"), stream.map(record -> record.get("name")).collect(Collectors.toList()));
+        }
+        
+        Path empty = Files.createFile(dir.resolve("empty.json"));
+        assertEquals(0, dataProcessor.parseFile(empty, record -> { }));
+    }
+    
+    @Test
+    void testParseFileErrors(@TempDir Path dir) throws Exception {
+        Path truncated = dir.resolve("truncated.json");
+        Files.writeString(truncated, "[{\"name\":\"a\"},");
+        
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseFile(truncated, record -> { }));
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseFile(dir.resolve("missing.json"), record -> { }));
+    }
+    
+    @Test
+    void testMappedFileInputStreamAcrossWindows(@TempDir Path dir) throws Exception {
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Path file = Files.write(dir.resolve("data.bin"), content);
+        
+        try (InputStream in = new MappedFileInputStream(file, 333)) {
+            assertArrayEquals(content, in.readAllBytes());
+            assertEquals(-1, in.read());
+        }
+    }
+    
+    @Test
+    void testCanonicalizesParsedStrings() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer();
+        DataProcessor processor = new DataProcessor(MetricsRegistry.NOOP, null, canonicalizer);
+        String json = "{\"name\":\"order\",\"value\":{\"status\":\"OK\",\"tags\":[\"eu\"]}}";
+        
+        Map<String, Object> first = processor.parseData(json);
+        Map<String, Object> second = processor.parseData(json);
+        assertEquals(first, second);
+        assertSame(first.get("name"), second.get("name"));
+        Map<?, ?> firstValue = (Map<?, ?>) first.get("value");
+        Map<?, ?> secondValue = (Map<?, ?>) second.get("value");
+        assertSame(firstValue.get("status"), secondValue.get("status"));
+        assertSame(((List<?>) firstValue.get("tags")).get(0), ((List<?>) secondValue.get("tags")).get(0));
+        assertSame(first.get("name"), processor.parseRecord(json).name());
+        assertSame(first.get("name"), processor.parseData(processor.processData("order", 1, DataFormat.SMILE), DataFormat.SMILE).get("name"));
+        LazyRecord lazy = processor.parseLazy(json);
+        assertSame(first.get("name"), lazy.name());
+        assertSame(firstValue.get("status"), lazy.get("value", Map.class).get("status"));
+        // Jackson shares field names without the table
+        assertSame(first.keySet().iterator().next(), dataProcessor.parseData(json).keySet().iterator().next());
+        
+        assertEquals(3, canonicalizer.misses());
+        assertEquals(10, canonicalizer.hits());
+        assertTrue(canonicalizer.bytesSaved() > 0);
+        // Processors without a table are unaffected
+        assertNotSame(dataProcessor.parseData(json).get("name"), dataProcessor.parseData(json).get("name"));
+    }
 }
@@ -0,0 +1,126 @@
+package com.example;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Differential tests checking HtmlEscaper against commons-lang3 escapeHtml4/unescapeHtml4.
+ */
+@DisplayName("HtmlEscaper Tests")
+@SuppressWarnings("deprecation")
+class HtmlEscaperTest {
+
+    private static final String[] FRAGMENTS = {
+        "&", "#", "x", "X", ";", "amp", "lt", "gt", "quot", "nbsp", "eacute", "thetasym", "diams",
+        "Amp", "12", "0", "41", "1F600", "fffff", "ab", " ", "<", ">", "\"", "'", "é", "♦",
+        "😀", "\ud800", "text", "&#", "&#x", "&amp", "lt;"
+    };
+
+    @Test
+    @DisplayName("Should escape every character like escapeHtml4")
+    void testEscapeEveryCharacter() {
+        StringBuilder all = new StringBuilder();
+        for (char c = 0; c < 0x2800; c++) {
+            String single = String.valueOf(c);
+            assertEquals(StringEscapeUtils.escapeHtml4(single), HtmlEscaper.escape(single), () -> "char " + (int) single.charAt(0));
+            all.append(c);
+        }
+        assertEquals(StringEscapeUtils.escapeHtml4(all.toString()), HtmlEscaper.escape(all.toString()));
+    }
+
+    @Test
+    @DisplayName("Should unescape every named entity like unescapeHtml4")
+    void testUnescapeNamedEntities() {
+        String escaped = StringEscapeUtils.escapeHtml4(everyEscapedCharacter());
+        assertEquals(StringEscapeUtils.unescapeHtml4(escaped), HtmlEscaper.unescape(escaped));
+        assertEquals(everyEscapedCharacter(), HtmlEscaper.unescape(escaped));
+    }
+
+    @Test
+    @DisplayName("Should handle numeric and malformed entities like unescapeHtml4")
+    void testNumericAndMalformedEntities() {
+        List<String> corpus = List.of(
+                "&#65;", "&#x41;", "&#X41;", "&#0065;", "&#65", "&#x;", "&#;", "&#", "&#x", "&#12a;", "&#x1F600;",
+                "&#128512;", "&#xFFFFFFFF;", "&#99999999999;", "&#0;", "a&#66;b&#67;c", "&amp;&lt;", "&amp",
+                "&unknown;", "&;", "&&amp;", "&thetasym;", "&Thetasym;", "&verylongname;", "x&", "&#x41;&");
+        for (String input : corpus) {
+            assertEquals(StringEscapeUtils.unescapeHtml4(input), HtmlEscaper.unescape(input), () -> "input " + input);
+        }
+        assertThrows(IllegalArgumentException.class, () -> StringEscapeUtils.unescapeHtml4("&#x110000;"));
+        assertThrows(IllegalArgumentException.class, () -> HtmlEscaper.unescape("&#x110000;"));
+    }
+
+    @Test
+    @DisplayName("Should match commons-lang3 on a random corpus")
+    void testRandomCorpus() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int parts = random.nextInt(12);
+            for (int p = 0; p < parts; p++) {
+                builder.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String input = builder.toString();
+            assertEquals(StringEscapeUtils.escapeHtml4(input), HtmlEscaper.escape(input), () -> "escape " + input);
+            assertEquals(outcome(() -> StringEscapeUtils.unescapeHtml4(input)),
+                    outcome(() -> HtmlEscaper.unescape(input)), () -> "unescape " + input);
+        }
+    }
+
+    /**
+     * Either the result or the type of the exception thrown, so out-of-range entities compare too.
+     */
+    private static String outcome(Supplier<String> action) {
+        try {
+            return action.get();
+        } catch (IllegalArgumentException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    @Test
+    @DisplayName("Should return the input when there is nothing to translate")
+    void testReturnsInputUnchanged() {
+        String plain = "nothing to see here 'quoted' 😀";
+        assertSame(plain, HtmlEscaper.escape(plain));
+        assertSame(plain, HtmlEscaper.unescape(plain));
+        assertNull(HtmlEscaper.escape(null));
+        assertNull(HtmlEscaper.unescape(null));
+    }
+
+    @Test
+    @DisplayName("Should stream into an Appendable or StringBuilder")
+    void testAppendableOutput() throws Exception {
+        StringWriter writer = new StringWriter();
+        HtmlEscaper.escape("<a href=\"x\">café</a>", writer);
+        assertEquals("&lt;a href=&quot;x&quot;&gt;caf&eacute;&lt;/a&gt;", writer.toString());
+
+        StringBuilder builder = new StringBuilder("prefix:");
+        HtmlEscaper.unescape(writer.toString(), builder);
+        assertEquals("prefix:<a href=\"x\">café</a>", builder.toString());
+    }
+
+    private static String everyEscapedCharacter() {
+        List<Character> chars = new ArrayList<>();
+        for (char c = 0; c < 0x2800; c++) {
+            if (!StringEscapeUtils.escapeHtml4(String.valueOf(c)).equals(String.valueOf(c))) {
+                chars.add(c);
+            }
+        }
+        StringBuilder builder = new StringBuilder();
+        chars.forEach(builder::append);
+        return builder.toString();
+    }
+}
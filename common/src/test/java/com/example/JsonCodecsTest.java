@@ -0,0 +1,42 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for JsonCodecs.
+ */
+class JsonCodecsTest {
+    
+    @Test
+    void testReadersAndWritersAreShared() {
+        assertSame(JsonCodecs.reader(Map.class), JsonCodecs.reader(Map.class));
+        assertSame(JsonCodecs.writer(ProcessedRecord.class), JsonCodecs.writer(ProcessedRecord.class));
+        assertSame(JsonCodecs.mapper(), JsonCodecs.mapper());
+    }
+    
+    @Test
+    void testRoundTripThroughCachedCodecs() throws Exception {
+        ProcessedRecord record = new ProcessedRecord("codec", "value", 42L);
+        
+        String json = JsonCodecs.writer(ProcessedRecord.class).writeValueAsString(record);
+        
+        assertEquals("{\"name\":\"codec\",\"value\":\"value\",\"timestamp\":42}", json);
+        assertEquals(record, JsonCodecs.reader(ProcessedRecord.class).readValue(json));
+    }
+    
+    @Test
+    void testBinaryFormatsHaveTheirOwnMappers() throws Exception {
+        assertSame(JsonCodecs.mapper(), JsonCodecs.mapper(DataFormat.JSON));
+        assertEquals("Smile", JsonCodecs.mapper(DataFormat.SMILE).getFactory().getFormatName());
+        assertEquals("CBOR", JsonCodecs.mapper(DataFormat.CBOR).getFactory().getFormatName());
+        assertSame(JsonCodecs.reader(DataFormat.CBOR, Map.class), JsonCodecs.reader(DataFormat.CBOR, Map.class));
+        
+        ProcessedRecord record = new ProcessedRecord("codec", "value", 42L);
+        byte[] smile = JsonCodecs.writer(DataFormat.SMILE, ProcessedRecord.class).writeValueAsBytes(record);
+        assertEquals(record, JsonCodecs.reader(DataFormat.SMILE, ProcessedRecord.class).readValue(smile));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LazyRecord.
+ */
+class LazyRecordTest {
+    
+    private DataProcessor dataProcessor;
+    
+    @BeforeEach
+    void setUp() {
+        dataProcessor = new DataProcessor();
+    }
+    
+    @Test
+    void testReadsFieldsOnDemand() {
+        Map<String, Object> value = Map.of("list", List.of(1, "two", Map.of("three", 3.0)));
+        String json = dataProcessor.processData("lazy", value, 1234L);
+        
+        LazyRecord record = dataProcessor.parseLazy(json);
+        
+        assertEquals("lazy", record.name());
+        assertEquals(1234L, record.timestamp());
+        assertEquals(value, record.value());
+        assertSame(record.value(), record.value());
+        assertEquals(Set.of("name", "value", "timestamp"), record.fieldNames());
+        assertEquals(dataProcessor.parseData(json), record.toMap());
+    }
+    
+    @Test
+    void testMatchesParseDataForAwkwardInput() {
+        String json = " {\n \"name\" : \"a\\\"b\\u00e9\" ,\"value\":[ ] ,\"n\":null,\"t\":true,"
+                + "\"d\":-1.5e3, \"nested\" : {\"x\":{\"y\":[1,{}]}}, \"big\":12345678901, \"neg\":-7,"
+                + "\"huge\":123456789012345678901234, \"f\":false }  ";
+        
+        LazyRecord record = dataProcessor.parseLazy(json);
+        
+        assertEquals(dataProcessor.parseData(json), record.toMap());
+        assertEquals("[ ]", record.rawValue("value"));
+        assertEquals("{\"x\":{\"y\":[1,{}]}}", record.rawValue("nested"));
+        assertTrue(record.has("n"));
+        assertNull(record.get("n"));
+        assertFalse(record.has("missing"));
+        assertNull(record.get("missing"));
+        assertEquals(0L, record.timestamp());
+    }
+    
+    @Test
+    void testTypedAccess() {
+        String json = dataProcessor.processData("typed", Map.of("name", "inner", "value", 7, "timestamp", 8), 9L);
+        
+        ProcessedRecord inner = dataProcessor.parseLazy(json).get("value", ProcessedRecord.class);
+        
+        assertEquals(new ProcessedRecord("inner", 7, 8L), inner);
+    }
+    
+    @Test
+    void testRejectsInvalidInput() {
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseLazy("[1]"));
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseLazy("{\"a\":[1,2}"));
+        assertThrows(RuntimeException.class, () -> dataProcessor.parseLazy("{\"a\":1} x"));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LogValues.
+ */
+class LogValuesTest {
+    
+    @Test
+    void testShortValuesArePassedThrough() {
+        String value = "short";
+        assertSame(value, LogValues.truncate(value));
+        assertNull(LogValues.truncate(null));
+    }
+    
+    @Test
+    void testLongValuesAreTruncated() {
+        String value = "x".repeat(1000);
+        
+        String rendered = LogValues.truncate(value, 10).toString();
+        
+        assertEquals("xxxxxxxxxx...(1000 chars)", rendered);
+        assertEquals(LogValues.DEFAULT_MAX_LENGTH, LogValues.truncate(value).toString().indexOf("...(1000 chars)"));
+    }
+    
+    @Test
+    void testToStringIsDeferred() {
+        int[] calls = {0};
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                calls[0]++;
+                return "rendered";
+            }
+        };
+        
+        Object arg = LogValues.truncate(value);
+        assertEquals(0, calls[0]);
+        assertEquals("rendered", arg.toString());
+        assertEquals(1, calls[0]);
+        assertEquals("{k=v}", LogValues.truncate(Map.of("k", "v")).toString());
+    }
+    
+    @Test
+    void testSurrogatePairIsNotSplit() {
+        String value = "ab😀cd";
+        
+        assertEquals("ab...(6 chars)", LogValues.truncate(value, 3).toString());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for MultiPatternCounter and HorspoolMatcher.
+ */
+@DisplayName("MultiPatternCounter Tests")
+class MultiPatternCounterTest {
+
+    @Test
+    @DisplayName("Should count overlapping and nested patterns independently")
+    void testOverlappingPatterns() {
+        MultiPatternCounter counter = new MultiPatternCounter(List.of("aa", "a", "aaa", "ab", "b"));
+        assertArrayEquals(new int[] {2, 5, 1, 2, 2}, counter.count("aaaabab"));
+    }
+
+    @Test
+    @DisplayName("Should treat blank patterns and blank text as zero")
+    void testBlankInput() {
+        MultiPatternCounter counter = new MultiPatternCounter(Arrays.asList("x", "", null, "  ", "y"));
+        assertArrayEquals(new int[] {1, 0, 0, 0, 2}, counter.count("xyy"));
+        assertArrayEquals(new int[5], counter.count("   "));
+        assertArrayEquals(new int[5], counter.count(null));
+        assertEquals(Arrays.asList("x", "", null, "  ", "y"), counter.getPatterns());
+    }
+
+    @Test
+    @DisplayName("Should match countOccurrences on a random corpus")
+    void testMatchesCountOccurrences() {
+        Random random = new Random(7);
+        String alphabet = "abcé😀 ";
+        for (int round = 0; round < 500; round++) {
+            String text = randomString(random, alphabet, random.nextInt(200));
+            List<String> patterns = Arrays.asList(
+                    randomString(random, alphabet, 1 + random.nextInt(3)),
+                    randomString(random, alphabet, 1 + random.nextInt(4)),
+                    randomString(random, alphabet, 1 + random.nextInt(6)),
+                    "aa", "aba");
+
+            int[] counts = new MultiPatternCounter(patterns).count(text);
+            for (int p = 0; p < patterns.size(); p++) {
+                assertEquals(StringUtils.countOccurrences(text, patterns.get(p)), counts[p],
+                        "text=" + text + " pattern=" + patterns.get(p));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should find the same matches as indexOf with Horspool")
+    void testHorspoolMatchesIndexOf() {
+        Random random = new Random(11);
+        for (int round = 0; round < 500; round++) {
+            String text = randomString(random, "abšɡ", random.nextInt(300));
+            String pattern = randomString(random, "abšɡ", 1 + random.nextInt(5));
+            HorspoolMatcher matcher = new HorspoolMatcher(pattern);
+            for (int from = 0; from <= text.length(); from += 7) {
+                assertEquals(text.indexOf(pattern, from), matcher.indexOf(text, from));
+            }
+            assertEquals(org.apache.commons.lang3.StringUtils.countMatches(text, pattern), matcher.count(text));
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        int[] codePoints = alphabet.codePoints().toArray();
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.appendCodePoint(codePoints[random.nextInt(codePoints.length)]);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RandomStrings.
+ */
+class RandomStringsTest {
+    
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    
+    @Test
+    void testCharactersAreRoughlyUniform() {
+        for (RandomStrings generator : List.of(RandomStrings.alphanumeric(), RandomStrings.secureAlphanumeric())) {
+            String sample = generator.next(620_000);
+            int[] counts = new int[128];
+            sample.chars().forEach(c -> counts[c]++);
+            
+            for (int i = 0; i < ALPHABET.length(); i++) {
+                int count = counts[ALPHABET.charAt(i)];
+                assertTrue(count > 9_000 && count < 11_000, ALPHABET.charAt(i) + " occurred " + count + " times");
+            }
+            assertEquals(sample.length(), ALPHABET.chars().map(c -> counts[c]).sum());
+        }
+    }
+    
+    @Test
+    void testBulkGeneration() {
+        List<String> strings = RandomStrings.alphanumeric().next(10_000, 12);
+        
+        assertEquals(10_000, strings.size());
+        Set<String> distinct = new HashSet<>(strings);
+        assertEquals(10_000, distinct.size());
+        assertTrue(strings.stream().allMatch(s -> s.matches("[0-9A-Za-z]{12}")));
+        assertEquals(List.of("", ""), RandomStrings.alphanumeric().next(2, 0));
+        assertTrue(RandomStrings.alphanumeric().next(0, 5).isEmpty());
+    }
+    
+    @Test
+    void testFillsRanges() {
+        char[] chars = new char[20];
+        byte[] bytes = new byte[20];
+        
+        RandomStrings.alphanumeric().nextChars(chars, 5, 10);
+        RandomStrings.secureAlphanumeric().nextBytes(bytes, 5, 10);
+        
+        for (int i = 0; i < 20; i++) {
+            boolean inRange = i >= 5 && i < 15;
+            assertEquals(inRange, ALPHABET.indexOf(chars[i]) >= 0, "char " + i);
+            assertEquals(inRange, ALPHABET.indexOf(bytes[i]) >= 0, "byte " + i);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> RandomStrings.alphanumeric().nextChars(chars, 15, 10));
+    }
+    
+    @Test
+    void testConcurrentGenerationIsIndependent() {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        
+        IntStream.range(0, 8).parallel().forEach(i -> seen.addAll(RandomStrings.secureAlphanumeric().next(1000, 16)));
+        
+        assertEquals(8000, seen.size());
+    }
+    
+    @Test
+    void testRejectsNegativeArguments() {
+        assertThrows(IllegalArgumentException.class, () -> RandomStrings.alphanumeric().next(-1));
+        assertThrows(IllegalArgumentException.class, () -> RandomStrings.alphanumeric().next(-1, 4));
+        assertEquals("", RandomStrings.secureAlphanumeric().next(0));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for RecordStore.
+ */
+class RecordStoreTest {
+    
+    @Test
+    void testAggregatesAcrossSegments() {
+        try (RecordStore store = new RecordStore(null, 4, 1024)) {
+            for (int i = 0; i < 10; i++) {
+                store.append(i % 3 == 0 ? "fizz" : "other", 1000L + i, i);
+            }
+            
+            assertEquals(10, store.size());
+            assertEquals(2, store.sealedSegments());
+            assertEquals(2, store.nameCount());
+            assertEquals(1000L, store.minTimestamp());
+            assertEquals(1009L, store.maxTimestamp());
+            
+            RecordStore.Aggregates all = store.aggregateByName();
+            assertEquals(4, all.count("fizz"));
+            assertEquals(6, all.count("other"));
+            assertEquals(1000L, all.minTimestamp("fizz"));
+            assertEquals(1009L, all.maxTimestamp("fizz"));
+            assertEquals(List.of("fizz", "other"), all.names());
+            assertEquals(0, all.count("missing"));
+            
+            RecordStore.Aggregates window = store.aggregateByName(1004L, 1008L);
+            assertEquals(4, window.totalCount());
+            assertEquals(1, window.count("fizz"));
+            assertEquals(1006L, window.minTimestamp("fizz"));
+            assertEquals(1004L, window.minTimestamp("other"));
+            assertEquals(1007L, window.maxTimestamp("other"));
+        }
+    }
+    
+    @Test
+    void testScanVisitsValuesInAppendOrder() {
+        try (RecordStore store = new RecordStore(null, 2, 1024)) {
+            store.append("a", 1L, Map.of("k", "v"));
+            store.append("b", 2L, List.of(1, 2));
+            store.append("a", 3L, "text");
+            store.append("c", 4L, null);
+            
+            List<Object> values = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            store.scan(2L, 4L, (nameId, timestamp, value) -> {
+                names.add(store.name(nameId));
+                values.add(RecordStore.readValue(value));
+            });
+            
+            assertEquals(List.of("b", "a"), names);
+            assertEquals(List.of(List.of(1, 2), "text"), values);
+            assertEquals(0, store.nameId("a"));
+            assertEquals(-1, store.nameId("missing"));
+        }
+    }
+    
+    @Test
+    void testAppendsLazyRecordsWithoutReserializing() {
+        DataProcessor processor = new DataProcessor();
+        try (RecordStore store = new RecordStore()) {
+            store.append(processor.parseLazy("{\"name\":\"raw\",\"value\":{ \"kept\" : 1.50 },\"timestamp\":7}"));
+            store.append(processor.parseRecord(processor.processData("typed", List.of("x"), 8L)));
+            
+            List<String> json = new ArrayList<>();
+            store.scan((nameId, timestamp, value) -> {
+                byte[] bytes = new byte[value.remaining()];
+                value.get(bytes);
+                json.add(store.name(nameId) + "@" + timestamp + "=" + new String(bytes));
+            });
+            
+            assertEquals(List.of("raw@7={ \"kept\" : 1.50 }", "typed@8=[\"x\"]"), json);
+        }
+    }
+    
+    @Test
+    void testSpillsSealedSegmentsToMappedFiles(@TempDir Path dir) throws Exception {
+        RecordStore store = new RecordStore(dir, 100, 4096);
+        for (int i = 0; i < 1000; i++) {
+            store.append("name-" + (i % 7), i, "value-" + i);
+        }
+        
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(9, files.count());
+        }
+        assertEquals(9, store.sealedSegments());
+        
+        long[] sum = new long[1];
+        store.scan((nameId, timestamp, value) -> {
+            assertEquals("value-" + timestamp, RecordStore.readValue(value));
+            sum[0] += timestamp;
+        });
+        assertEquals(999L * 1000 / 2, sum[0]);
+        assertEquals(143, store.aggregateByName().count("name-0"));
+        
+        store.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, store::aggregateByName);
+        assertThrows(IllegalStateException.class, store::size);
+        assertThrows(IllegalStateException.class, store::maxTimestamp);
+        assertThrows(IllegalStateException.class, store::nameCount);
+        assertThrows(IllegalStateException.class, () -> store.name(0));
+        assertThrows(IllegalStateException.class, () -> store.nameId("name-0"));
+    }
+    
+    @Test
+    void testUnboundedScanIncludesExtremeTimestamps() {
+        try (RecordStore store = new RecordStore(null, 2, 64)) {
+            store.append("min", Long.MIN_VALUE, 1);
+            store.append("max", Long.MAX_VALUE, 2);
+            store.append("zero", 0L, 3);
+            
+            List<Long> timestamps = new ArrayList<>();
+            store.scan((nameId, timestamp, value) -> timestamps.add(timestamp));
+            assertEquals(List.of(Long.MIN_VALUE, Long.MAX_VALUE, 0L), timestamps);
+            assertEquals(3, store.aggregateByName().totalCount());
+            assertEquals(Long.MAX_VALUE, store.aggregateByName().maxTimestamp("max"));
+            assertEquals(2, store.aggregateByName(Long.MIN_VALUE, Long.MAX_VALUE).totalCount());
+            assertEquals(0, store.aggregateByName(Long.MIN_VALUE, Long.MIN_VALUE).totalCount());
+        }
+    }
+    
+    @Test
+    void testRejectsValuesLargerThanASegment() {
+        try (RecordStore store = new RecordStore(null, 16, 64)) {
+            assertThrows(IllegalArgumentException.class, () -> store.append("big", 1L, "x".repeat(100)));
+            assertEquals(0, store.size());
+        }
+    }
+}
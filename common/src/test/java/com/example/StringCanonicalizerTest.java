@@ -0,0 +1,86 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for StringCanonicalizer.
+ */
+class StringCanonicalizerTest {
+    
+    @Test
+    void testReturnsSharedInstances() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer();
+        String first = canonicalizer.canonicalize(new String("status"));
+        String copy = new String("status");
+        
+        assertSame(first, canonicalizer.canonicalize(copy));
+        assertSame(first, canonicalizer.canonicalize("xstatusx".toCharArray(), 1, 6));
+        assertNull(canonicalizer.canonicalize(null));
+        assertEquals(1, canonicalizer.misses());
+        assertEquals(2, canonicalizer.hits());
+        // A String of six Latin-1 characters: 24 bytes, plus a 16 + 6 byte array padded to 24
+        assertEquals(2 * 48, canonicalizer.bytesSaved());
+        
+        String wide = canonicalizer.canonicalize("€€".toCharArray(), 0, 2);
+        assertSame(wide, canonicalizer.canonicalize(new String("€€")));
+        assertEquals(2 * 48 + 48, canonicalizer.bytesSaved());
+    }
+    
+    @Test
+    void testLeavesLongStringsAlone() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(16, 4);
+        String s = new String("toolong");
+        
+        assertSame(s, canonicalizer.canonicalize(s));
+        assertNotSame(canonicalizer.canonicalize("toolong".toCharArray(), 0, 7),
+                canonicalizer.canonicalize("toolong".toCharArray(), 0, 7));
+        assertEquals(0, canonicalizer.misses());
+        assertEquals(16, canonicalizer.capacity());
+        assertEquals(32, new StringCanonicalizer(17, 4).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new StringCanonicalizer(1, 4));
+    }
+    
+    @Test
+    void testRecurringValuesSurviveAStreamOfUniqueOnes() {
+        // One pair of slots, so every string competes for it
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(2, 64);
+        String hot = canonicalizer.canonicalize(new String("hot"));
+        assertSame(hot, canonicalizer.canonicalize(new String("hot")));
+        
+        for (int i = 0; i < 100; i++) {
+            canonicalizer.canonicalize("id-" + i);
+            assertSame(hot, canonicalizer.canonicalize(new String("hot")));
+        }
+        
+        // A value that recurs while in probation takes the primary slot
+        String warm = canonicalizer.canonicalize(new String("warm"));
+        assertSame(warm, canonicalizer.canonicalize(new String("warm")));
+        assertSame(warm, canonicalizer.canonicalize(new String("warm")));
+        assertSame(hot, canonicalizer.canonicalize(new String("hot")));
+    }
+    
+    @Test
+    void testConcurrentUseReturnsEqualStrings() {
+        StringCanonicalizer canonicalizer = new StringCanonicalizer(64, 64);
+        List<String> values = List.of("alpha", "bravo", "charlie", "delta", "echo");
+        ConcurrentHashMap<String, Boolean> seen = new ConcurrentHashMap<>();
+        
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            String value = values.get(i % values.size());
+            String canonical = i % 2 == 0
+                    ? canonicalizer.canonicalize(new String(value))
+                    : canonicalizer.canonicalize(value.toCharArray(), 0, value.length());
+            assertEquals(value, canonical);
+            seen.put(canonical, Boolean.TRUE);
+        });
+        
+        assertEquals(100_000, canonicalizer.hits() + canonicalizer.misses());
+        assertEquals(values.size(), seen.size());
+    }
+}
@@ -1,11 +1,18 @@
 package com.example;
 
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -71,6 +78,18 @@ class StringUtilsTest {
         assertTrue(random1.matches("[a-zA-Z0-9]+"));
         assertTrue(random2.matches("[a-zA-Z0-9]+"));
     }
+    
+    @Test
+    @DisplayName("Should generate secure and bulk random strings")
+    void testGenerateSecureAndBulkRandomStrings() {
+        String secure = StringUtils.generateSecureRandomString(32);
+        List<String> bulk = StringUtils.generateRandomStrings(100, 8);
+        
+        assertTrue(secure.matches("[a-zA-Z0-9]{32}"));
+        assertEquals(100, bulk.size());
+        assertTrue(bulk.stream().allMatch(s -> s.matches("[a-zA-Z0-9]{8}")));
+        assertThrows(IllegalArgumentException.class, () -> StringUtils.generateRandomString(-1));
+    }
 
     @Test
     @DisplayName("Should escape HTML correctly")
@@ -153,4 +172,118 @@ class StringUtilsTest {
         assertTrue(StringUtils.isNotBlank(unicode));
         assertEquals("Café résumé", StringUtils.capitalize(StringUtils.reverse(StringUtils.reverse("café résumé"))));
     }
-} 
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should match commons-lang3 for capitalize, reverse, join and split")
+    void testMatchesCommonsLang() {
+        List<String> inputs = List.of("hello", "\u01c6x", "\ud801\udc28abc", "a\ud83d\ude00b", "\u00e9t\u00e9", "x");
+        for (String input : inputs) {
+            assertEquals(org.apache.commons.lang3.StringUtils.capitalize(input), StringUtils.capitalize(input));
+            assertEquals(org.apache.commons.lang3.StringUtils.reverse(input), StringUtils.reverse(input));
+        }
+        
+        List<String> withNulls = Arrays.asList("a", null, "c");
+        assertEquals(org.apache.commons.lang3.StringUtils.join(withNulls, "-"), StringUtils.join(withNulls, "-"));
+        assertEquals(org.apache.commons.lang3.StringUtils.join(withNulls, null), StringUtils.join(withNulls, null));
+        
+        List<String> splitInputs = List.of("a;b,,c ; ", " ,\u2003, x\ty ,", ";;;", "no delimiters here", "a\u00a0,b");
+        for (String input : splitInputs) {
+            for (String delimiter : Arrays.asList(",", ";,", null, "")) {
+                assertEquals(commonsSplitAndTrim(input, delimiter), StringUtils.splitAndTrim(input, delimiter),
+                        () -> "input=" + input + " delimiter=" + delimiter);
+            }
+        }
+    }
+
+    private static List<String> commonsSplitAndTrim(String input, String delimiter) {
+        return Arrays.stream(org.apache.commons.lang3.StringUtils.split(input, delimiter))
+                .map(String::trim)
+                .filter(org.apache.commons.lang3.StringUtils::isNotBlank)
+                .collect(java.util.stream.Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Should support CharSequence and char[] range overloads")
+    void testBufferOverloads() {
+        char[] buf = "xx  apple , banana  yy".toCharArray();
+        assertTrue(StringUtils.isBlank(buf, 2, 2));
+        assertFalse(StringUtils.isBlank(buf, 2, 3));
+        assertEquals(List.of("apple", "banana"), StringUtils.splitAndTrim(buf, 2, 18, ","));
+        assertEquals(2, StringUtils.countOccurrences(buf, 0, buf.length, "an"));
+        assertEquals(1, StringUtils.countOccurrences(buf, 0, 16, "an"));
+        assertEquals(0, StringUtils.countOccurrences(buf, 0, 2, "an"));
+
+        StringBuilder builder = new StringBuilder("aaaa b aa");
+        assertTrue(StringUtils.isNotBlank(builder));
+        assertTrue(StringUtils.isBlank(new StringBuilder(" \t")));
+        assertEquals(3, StringUtils.countOccurrences(builder, "aa"));
+        assertEquals(List.of("aaaa", "b", "aa"), StringUtils.splitAndTrim(builder, " "));
+    }
+
+    @Test
+    @DisplayName("Should count several substrings in one pass")
+    void testCountAllOccurrences() {
+        String text = "hello hello world hello";
+        assertArrayEquals(new int[] {3, 1, 0, 0}, StringUtils.countAllOccurrences(text, List.of("hello", "world", "missing", "")));
+
+        String longText = "abcdefghijklmnopqrstuvwxyz ".repeat(500);
+        assertEquals(499, StringUtils.countOccurrences(longText, "mnopqrstuvwxyz abcdef"));
+    }
+
+    @Test
+    @DisplayName("Should stream the same tokens as splitAndTrim")
+    void testSplitAndTrimStream() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            String input = randomDelimited(random, random.nextInt(400));
+            for (String delimiter : Arrays.asList(",", ";,", null)) {
+                List<String> expected = StringUtils.splitAndTrim(input, delimiter);
+                assertEquals(expected, StringUtils.splitAndTrimStream(input, delimiter)
+                        .map(CharSequence::toString).collect(Collectors.toList()));
+                assertEquals(expected, StringUtils.splitAndTrimStream(new TrickleReader(input), delimiter)
+                        .collect(Collectors.toList()));
+            }
+        }
+        assertEquals(0, StringUtils.splitAndTrimStream((CharSequence) null, ",").count());
+    }
+
+    @Test
+    @DisplayName("Should split large inputs in parallel without cutting tokens")
+    void testSplitAndTrimStreamParallel() {
+        String input = randomDelimited(new Random(5), 100_000);
+        List<String> expected = StringUtils.splitAndTrim(input, ",");
+        List<String> actual = StringUtils.splitAndTrimStream(input, ",").parallel()
+                .map(CharSequence::toString).collect(Collectors.toList());
+        assertEquals(expected, actual);
+    }
+
+    private static String randomDelimited(Random random, int length) {
+        String alphabet = "ab  ,;\t\u2003é";
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Reader returning at most three characters per read, to exercise buffer boundaries.
+     */
+    private static final class TrickleReader extends Reader {
+        private final StringReader delegate;
+
+        TrickleReader(String input) {
+            this.delegate = new StringReader(input);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws java.io.IOException {
+            return delegate.read(cbuf, off, Math.min(len, 3));
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
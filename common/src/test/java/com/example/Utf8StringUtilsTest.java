@@ -0,0 +1,159 @@
+package com.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Utf8StringUtils.
+ */
+class Utf8StringUtilsTest {
+    
+    /** ASCII, separators, escaped characters, multi-byte letters and Unicode whitespace. */
+    private static final String[] ALPHABET = {
+        "a", "b", "Z", "0", " ", " ", "\t", "\n", "\u001C", ",", ";", "&", "<", ">", "\"",
+        "é", "ß", "€", "☃", "😀", "\u00A0", "\u2002", "\u2007", "\u3000", "\u1680", "\u2028", "α"
+    };
+    
+    private static final String[] DELIMITERS = {null, ",", ";,", " ", "€", ",\u3000", "é,"};
+    
+    private static final String[] SUBSTRINGS = {"a", "ab", "aa", "€", "😀a", " ,", "&<", "\u2002", " "};
+    
+    @Test
+    void testMatchesStringVersionsOnRandomInput() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int n = 0; n < 5000; n++) {
+            String s = randomString(random, random.nextInt(n % 10 == 0 ? 200 : 24));
+            assertSameResults(s);
+        }
+    }
+    
+    @Test
+    void testMatchesStringVersionsOnEdgeCases() {
+        for (String s : new String[] {
+            "", " ", "        ", "        \u3000", "\u2002\u2002", "\u00A0", "a", ",,,", " , ,, ",
+            "alpha, beta ,gamma", "x\u3000y", "aaaaaaaaaaaaaaaaaa", "<p>café & €</p>", "\u2002x\u2002"
+        }) {
+            assertSameResults(s);
+        }
+    }
+    
+    @Test
+    void testWorksOnDirectBufferSlices() {
+        byte[] bytes = "##  one ; two ;;three  ##".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        direct.position(2).limit(bytes.length - 2);
+        
+        List<String> tokens = new ArrayList<>();
+        for (ByteBuffer token : Utf8StringUtils.splitAndTrim(direct, ";")) {
+            tokens.add(StandardCharsets.UTF_8.decode(token).toString());
+        }
+        assertEquals(List.of("one", "two", "three"), tokens);
+        assertEquals(2, direct.position());
+        assertEquals(2, Utf8StringUtils.countOccurrences(direct, "t"));
+        assertFalse(Utf8StringUtils.isBlank(direct));
+        
+        List<Integer> ranges = new ArrayList<>();
+        assertEquals(3, Utf8StringUtils.splitAndTrim(bytes, 2, bytes.length - 4, ";", (start, end) -> {
+            ranges.add(start);
+            ranges.add(end);
+        }));
+        assertEquals(List.of(4, 7, 10, 13, 16, 21), ranges);
+    }
+    
+    @Test
+    void testEscapeHtmlReturnsInputWhenNothingToEscape() {
+        byte[] bytes = "plain text, nothing to do".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer escaped = Utf8StringUtils.escapeHtml(bytes, 6, 4);
+        
+        assertSame(bytes, escaped.array());
+        assertEquals("text", decode(escaped));
+        assertEquals("a &amp; b", decode(Utf8StringUtils.escapeHtml(ByteBuffer.wrap("a & b".getBytes(StandardCharsets.UTF_8)))));
+    }
+    
+    @Test
+    void testMalformedInput() {
+        byte[] truncated = {' ', (byte) 0xE2, (byte) 0x82, ','};
+        byte[] surrogate = {(byte) 0xED, (byte) 0xA0, (byte) 0x80};
+        
+        assertFalse(Utf8StringUtils.isBlank(truncated, 0, truncated.length));
+        assertFalse(Utf8StringUtils.isBlank(surrogate, 0, surrogate.length));
+        assertEquals(1, Utf8StringUtils.splitAndTrim(truncated, 0, truncated.length, ",", (start, end) -> {
+            assertEquals(1, start);
+            assertEquals(3, end);
+        }));
+        assertArrayEquals(" \uFFFD,".getBytes(StandardCharsets.UTF_8),
+                bytes(Utf8StringUtils.escapeHtml(truncated, 0, truncated.length)));
+        assertThrows(IllegalArgumentException.class,
+                () -> Utf8StringUtils.splitAndTrim(truncated, 0, 1, "\uD83D", (start, end) -> { }));
+    }
+    
+    @Test
+    void testMatchesStringVersionsOnMalformedInput() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int n = 0; n < 5000; n++) {
+            byte[] utf8 = randomString(random, random.nextInt(40)).getBytes(StandardCharsets.UTF_8);
+            // Overwrite a few bytes with lead, continuation and invalid bytes
+            for (int k = random.nextInt(1, 4); k > 0 && utf8.length > 0; k--) {
+                utf8[random.nextInt(utf8.length)] = (byte) random.nextInt(0x80, 0x100);
+            }
+            assertSameResults(utf8);
+        }
+    }
+    
+    private static void assertSameResults(String s) {
+        assertSameResults(s.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Compares against the StringUtils methods on the decoded string, so malformed input is
+     * compared against its replacement characters.
+     */
+    private static void assertSameResults(byte[] utf8) {
+        String s = new String(utf8, StandardCharsets.UTF_8);
+        // Surround the input so that offsets matter
+        byte[] padded = new byte[utf8.length + 6];
+        Arrays.fill(padded, (byte) 'x');
+        System.arraycopy(utf8, 0, padded, 3, utf8.length);
+        
+        assertEquals(StringUtils.isBlank(s), Utf8StringUtils.isBlank(padded, 3, utf8.length), s);
+        for (String delimiter : DELIMITERS) {
+            List<String> tokens = new ArrayList<>();
+            Utf8StringUtils.splitAndTrim(padded, 3, utf8.length, delimiter,
+                    (start, end) -> tokens.add(new String(padded, start, end - start, StandardCharsets.UTF_8)));
+            assertEquals(StringUtils.splitAndTrim(s, delimiter), tokens, s + " / " + delimiter);
+        }
+        for (String sub : SUBSTRINGS) {
+            assertEquals(StringUtils.countOccurrences(s, sub), Utf8StringUtils.countOccurrences(padded, 3, utf8.length, sub),
+                    s + " / " + sub);
+        }
+        assertEquals(StringUtils.escapeHtml(s), decode(Utf8StringUtils.escapeHtml(padded, 3, utf8.length)), s);
+    }
+    
+    private static String randomString(SplittableRandom random, int length) {
+        StringBuilder sb = new StringBuilder();
+        // Mostly ASCII, as real input is, so that whole words take the fast paths
+        int nonAscii = random.nextInt(4) == 0 ? ALPHABET.length : 15;
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET[random.nextInt(nonAscii)]);
+        }
+        return sb.toString();
+    }
+    
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+    
+    private static String decode(ByteBuffer buffer) {
+        return new String(bytes(buffer), StandardCharsets.UTF_8);
+    }
+}
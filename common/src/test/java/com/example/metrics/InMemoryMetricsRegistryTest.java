@@ -0,0 +1,123 @@
+package com.example.metrics;
+
+import com.example.DataProcessor;
+import com.example.ProcessedRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for InMemoryMetricsRegistry and LatencyHistogram.
+ */
+class InMemoryMetricsRegistryTest {
+    
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            histogram.record(v * 1000);
+        }
+        
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        assertEquals(50_000_000, histogram.getValueAtPercentile(50), 50_000_000 * 0.016);
+        assertEquals(99_000_000, histogram.getValueAtPercentile(99), 99_000_000 * 0.016);
+        assertEquals(100_000_000, histogram.getValueAtPercentile(100));
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+    
+    @Test
+    void testBucketBoundaries() {
+        for (long v : new long[] {0, 1, 127, 128, 129, 255, 256, 1_000_000, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(v);
+            assertTrue(LatencyHistogram.highestValueAt(index) >= v);
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestValueAt(index - 1) < v);
+            }
+        }
+    }
+    
+    @Test
+    void testRegistryRecordsCalls() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        MethodMetrics metrics = registry.method("test.method");
+        assertSame(metrics, registry.method("test.method"));
+        
+        metrics.recordSuccess(1_000, 10, 20);
+        metrics.recordSuccess(3_000, 5, 5);
+        metrics.recordError(2_000);
+        
+        MethodSnapshot snapshot = registry.snapshot().get("test.method");
+        assertEquals(3, snapshot.calls());
+        assertEquals(1, snapshot.errors());
+        assertEquals(15, snapshot.bytesIn());
+        assertEquals(25, snapshot.bytesOut());
+        assertEquals(3_000, snapshot.max());
+        assertTrue(registry.toJson().startsWith("{\"test.method\":{\"calls\":3,\"errors\":1,"));
+    }
+    
+    @Test
+    void testDataProcessorInstrumentation() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        DataProcessor processor = new DataProcessor(registry);
+        
+        String json = processor.processData("metered", "value");
+        processor.parseData(json);
+        assertThrows(RuntimeException.class, () -> processor.parseData("{ invalid json }"));
+        
+        Map<String, MethodSnapshot> snapshot = registry.snapshot();
+        assertEquals(1, snapshot.get("DataProcessor.processData").calls());
+        assertEquals(json.length(), snapshot.get("DataProcessor.processData").bytesOut());
+        assertEquals(2, snapshot.get("DataProcessor.parseData").calls());
+        assertEquals(1, snapshot.get("DataProcessor.parseData").errors());
+        assertTrue(MetricsRegistry.NOOP.snapshot().isEmpty());
+    }
+    
+    @Test
+    void testStreamingAndBatchInstrumentation() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        DataProcessor processor = new DataProcessor(registry);
+        
+        processor.processData("metered", "value", new ByteArrayOutputStream());
+        processor.processData("metered", "value", new StringWriter());
+        String batch = processor.processBatch(List.of(Map.entry("a", 1), Map.entry("b", 2)));
+        processor.parseBatch(batch);
+        String json = processor.processData("metered", "value");
+        processor.parseRecord(json);
+        processor.parseData(json, ProcessedRecord.class);
+        
+        Map<String, MethodSnapshot> snapshot = registry.snapshot();
+        assertEquals(3, snapshot.get("DataProcessor.processData").calls());
+        assertEquals(2, snapshot.get("DataProcessor.parseData").calls());
+        assertEquals(1, snapshot.get("DataProcessor.processBatch").calls());
+        assertEquals(batch.length(), snapshot.get("DataProcessor.processBatch").bytesOut());
+        assertEquals(1, snapshot.get("DataProcessor.parseBatch").calls());
+        assertEquals(batch.length(), snapshot.get("DataProcessor.parseBatch").bytesIn());
+    }
+    
+    @Test
+    void testStreamingCallsRecordBytesWrittenAndOverflows() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        DataProcessor processor = new DataProcessor(registry, (Clock) null);
+        int recordBytes = processor.processData("metered", "value").length();
+        
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        processor.processData("metered", "value", stream);
+        ByteBuffer buffer = ByteBuffer.allocate(10_000).position(5);
+        assertEquals(recordBytes, processor.processData("metered", "value", buffer));
+        assertEquals(3L * recordBytes, registry.snapshot().get("DataProcessor.processData").bytesOut());
+        
+        int position = buffer.position();
+        assertThrows(BufferOverflowException.class, () -> processor.processData("large", "x".repeat(20_000), buffer));
+        assertEquals(position, buffer.position());
+        assertEquals(1, registry.snapshot().get("DataProcessor.processData").errors());
+    }
+}